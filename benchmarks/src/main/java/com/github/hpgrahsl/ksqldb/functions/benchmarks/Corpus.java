@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generators for synthetic but realistic chat-message corpora.
+ */
+public enum Corpus {
+
+    ASCII {
+        @Override
+        void appendToken(StringBuilder sb, Random random) {
+            appendWord(sb, random);
+        }
+    },
+
+    MIXED_CJK {
+        @Override
+        void appendToken(StringBuilder sb, Random random) {
+            int kind = random.nextInt(100);
+            if(kind < 40) {
+                appendWord(sb, random);
+            } else if(kind < 70) {
+                appendRange(sb, random, 0x4E00, 0x9FFF, 1 + random.nextInt(6));
+            } else if(kind < 85) {
+                appendRange(sb, random, 0xAC00, 0xD7A3, 1 + random.nextInt(4));
+            } else if(kind < 98) {
+                appendRange(sb, random, 0x00C0, 0x00FF, 1 + random.nextInt(4));
+            } else {
+                sb.append(pick(random, COMMON_EMOJIS));
+            }
+        }
+    },
+
+    EMOJI_DENSE {
+        @Override
+        void appendToken(StringBuilder sb, Random random) {
+            if(random.nextInt(4) == 0) {
+                appendWord(sb, random);
+            } else {
+                sb.append(pick(random, COMMON_EMOJIS));
+            }
+        }
+    },
+
+    SKIN_TONE_ZWJ {
+        @Override
+        void appendToken(StringBuilder sb, Random random) {
+            int kind = random.nextInt(4);
+            if(kind == 0) {
+                appendWord(sb, random);
+            } else if(kind == 1) {
+                sb.append(pick(random, FITZPATRICK_BASES)).append(pick(random, FITZPATRICK_MODIFIERS));
+            } else {
+                sb.append(pick(random, SEQUENCES));
+            }
+        }
+    };
+
+    static final String[] COMMON_EMOJIS = {
+            "😂", "❤️", "🔥", "👍", "😍", "🙏", "😭", "🥰", "✨", "🎉",
+            "🚀", "💯", "🤓", "😎", "🤞", "😱", "🧐", "🌻", "🍄", "👏"
+    };
+
+    static final String[] FITZPATRICK_BASES = {
+            "👍", "👋", "👏", "🙏", "💪", "✌", "👌", "🤞", "👶", "🧑"
+    };
+
+    static final String[] FITZPATRICK_MODIFIERS = {
+            "🏻", "🏼", "🏽", "🏾", "🏿"
+    };
+
+    static final String[] SEQUENCES = {
+            "👩‍💻", "👨‍👩‍👧‍👦", "🏳️‍🌈", "🧑🏿‍🚀", "👩🏽‍⚕️", "❤️‍🔥", "1️⃣", "#️⃣", "🇦🇹", "🏴‍☠️"
+    };
+
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyz";
+
+    abstract void appendToken(StringBuilder sb, Random random);
+
+    /**
+     * Generates a deterministic text of exactly the given number of chars without splitting surrogate pairs
+     * at the end (which may make the text one char shorter).
+     */
+    public String generate(int length, long seed) {
+        var random = new Random(seed);
+        var sb = new StringBuilder(length + 32);
+        while(sb.length() < length) {
+            appendToken(sb, random);
+            sb.append(random.nextInt(8) == 0 ? ". " : " ");
+        }
+        int end = length;
+        if(end > 0 && Character.isHighSurrogate(sb.charAt(end - 1))) {
+            end--;
+        }
+        return sb.substring(0, end);
+    }
+
+    private static void appendWord(StringBuilder sb, Random random) {
+        for(int i = 1 + random.nextInt(9); i > 0; i--) {
+            sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+        }
+    }
+
+    private static void appendRange(StringBuilder sb, Random random, int from, int to, int count) {
+        for(int i = 0; i < count; i++) {
+            sb.appendCodePoint(from + random.nextInt(to - from + 1));
+        }
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+import com.github.hpgrahsl.ksqldb.functions.EmojiBatchProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how batch processing scales with the parallelism of the fork join pool.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmojiBatchProcessorBenchmarks {
+
+    private static final int BATCH_SIZE = 100_000;
+
+    private static final int TEXT_LENGTH = 256;
+
+    @Param({"ASCII", "EMOJI_DENSE"})
+    public Corpus corpus;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private String[] texts;
+    private ForkJoinPool pool;
+    private EmojiBatchProcessor processor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        texts = new String[BATCH_SIZE];
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            texts[i] = corpus.generate(TEXT_LENGTH, i);
+        }
+        pool = new ForkJoinPool(parallelism);
+        processor = new EmojiBatchProcessor(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] countEmojis() {
+        return processor.count(texts, false);
+    }
+
+    @Benchmark
+    public BitSet containsEmojis() {
+        return processor.contains(texts);
+    }
+
+    @Benchmark
+    public EmojiBatchProcessor.Extracted extractEmojis() {
+        return processor.extract(texts, false);
+    }
+
+}
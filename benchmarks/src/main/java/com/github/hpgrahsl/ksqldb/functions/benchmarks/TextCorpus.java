@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Rotates over a small batch of generated texts for one corpus and payload size.
+ */
+@State(Scope.Thread)
+public class TextCorpus {
+
+    private static final int BATCH_SIZE = 16;
+
+    @Param({"ASCII", "MIXED_CJK", "EMOJI_DENSE", "SKIN_TONE_ZWJ"})
+    public Corpus corpus;
+
+    @Param({"1", "64", "1024", "16384", "65536"})
+    public int length;
+
+    private String[] texts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        texts = new String[BATCH_SIZE];
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            texts[i] = corpus.generate(length, 31L * i + length);
+        }
+    }
+
+    public String next() {
+        next = (next + 1) & (BATCH_SIZE - 1);
+        return texts[next];
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdafEmojisDistinctApprox;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisExtract;
+import io.confluent.ksql.function.udaf.Udaf;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating rows with EMOJIS_DISTINCT_APPROX to keeping the exact set of
+ * unique emojis extracted by EMOJIS_EXTRACT(text, true) per group.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdafEmojisDistinctApproxBenchmarks {
+
+    private static final int ROWS = 16;
+
+    private final Udaf<String, String, Long> udaf = UdafEmojisDistinctApprox.createEmojisDistinctApprox();
+    private final UdfEmojisExtract extract = new UdfEmojisExtract();
+
+    private String aggregate;
+    private String aggregateOne;
+    private String aggregateTwo;
+    private Set<String> distinct;
+
+    @Setup(Level.Iteration)
+    public void setup(TextCorpus corpus) {
+        aggregate = udaf.initialize();
+        distinct = new HashSet<>();
+        aggregateOne = udaf.initialize();
+        aggregateTwo = udaf.initialize();
+        for(int i = 0; i < ROWS; i++) {
+            aggregateOne = udaf.aggregate(corpus.next(), aggregateOne);
+            aggregateTwo = udaf.aggregate(corpus.next(), aggregateTwo);
+        }
+    }
+
+    @Benchmark
+    public String aggregateEmojisDistinctApprox(TextCorpus corpus) {
+        aggregate = udaf.aggregate(corpus.next(), aggregate);
+        return aggregate;
+    }
+
+    @Benchmark
+    public Set<String> extractAndCollectDistinct(TextCorpus corpus) {
+        distinct.addAll(extract.extractEmojis(corpus.next(), true));
+        return distinct;
+    }
+
+    @Benchmark
+    public String mergeEmojisDistinctApprox() {
+        return udaf.merge(aggregateOne, aggregateTwo);
+    }
+
+    @Benchmark
+    public Long mapEmojisDistinctApprox() {
+        return udaf.map(aggregateOne);
+    }
+
+}
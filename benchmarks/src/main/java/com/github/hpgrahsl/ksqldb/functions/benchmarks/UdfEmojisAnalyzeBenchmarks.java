@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisAnalyze;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisContained;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisCount;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisExtract;
+import org.apache.kafka.connect.data.Struct;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the single pass of EMOJIS_ANALYZE with the four separate function calls
+ * (EMOJIS_CONTAINED, EMOJIS_COUNT with and without duplicates and EMOJIS_EXTRACT) it replaces.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdfEmojisAnalyzeBenchmarks {
+
+    private final UdfEmojisAnalyze analyze = new UdfEmojisAnalyze();
+    private final UdfEmojisContained contained = new UdfEmojisContained();
+    private final UdfEmojisCount count = new UdfEmojisCount();
+    private final UdfEmojisExtract extract = new UdfEmojisExtract();
+
+    @Benchmark
+    public Struct analyzeEmojis(TextCorpus corpus) {
+        return analyze.analyzeEmojis(corpus.next());
+    }
+
+    @Benchmark
+    public void separateCalls(TextCorpus corpus, Blackhole blackhole) {
+        var text = corpus.next();
+        blackhole.consume(contained.containsEmojis(text));
+        blackhole.consume(count.countEmojis(text, false));
+        blackhole.consume(count.countEmojis(text, true));
+        blackhole.consume(extract.extractEmojis(text, false));
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisCategories;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisCategoryCounts;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisSentiment;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisTags;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups of emoji attributes. EMOJIS_SENTIMENT only scores emojis if the
+ * Emoji Sentiment Ranking data is on the classpath, otherwise it measures the scan alone.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdfEmojisAttributesBenchmarks {
+
+    private final UdfEmojisCategories categories = new UdfEmojisCategories();
+    private final UdfEmojisCategoryCounts categoryCounts = new UdfEmojisCategoryCounts();
+    private final UdfEmojisTags tags = new UdfEmojisTags();
+    private final UdfEmojisSentiment sentiment = new UdfEmojisSentiment();
+
+    @Benchmark
+    public List<String> lookupEmojiGroups(TextCorpus corpus) {
+        return categories.lookupEmojiCategories(corpus.next());
+    }
+
+    @Benchmark
+    public List<String> lookupEmojiSubgroups(TextCorpus corpus) {
+        return categories.lookupEmojiCategories(corpus.next(), "SUBGROUP");
+    }
+
+    @Benchmark
+    public Map<String, Integer> countEmojiGroups(TextCorpus corpus) {
+        return categoryCounts.countEmojiCategories(corpus.next());
+    }
+
+    @Benchmark
+    public Map<String, Integer> countEmojiSubgroups(TextCorpus corpus) {
+        return categoryCounts.countEmojiCategories(corpus.next(), "SUBGROUP");
+    }
+
+    @Benchmark
+    public List<String> lookupEmojiTags(TextCorpus corpus) {
+        return tags.lookupEmojiTags(corpus.next());
+    }
+
+    @Benchmark
+    public Double scoreEmojiSentiment(TextCorpus corpus) {
+        return sentiment.scoreEmojiSentiment(corpus.next());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisFromHtmlCodepoints;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisToHtmlCodepoints;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes the corpus texts after they have been encoded by emojis_to_htmlcodepoints. Fitzpatrick modifiers
+ * are kept so that the decoder also has to deal with them.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdfEmojisFromHtmlCodepointsBenchmarks {
+
+    private static final int BATCH_SIZE = 16;
+
+    private final UdfEmojisFromHtmlCodepoints udf = new UdfEmojisFromHtmlCodepoints();
+
+    private String[] htmlCodepoints;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void encode(TextCorpus corpus) {
+        htmlCodepoints = new String[BATCH_SIZE];
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            htmlCodepoints[i] = new UdfEmojisToHtmlCodepoints().replaceEmojisWithCodepoints(corpus.next(), "IGNORE", "HEX");
+        }
+    }
+
+    @Benchmark
+    public String replaceCodepointsWithEmojis() {
+        next = (next + 1) & (BATCH_SIZE - 1);
+        return udf.replaceCodepointsWithEmojis(htmlCodepoints[next]);
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisRemove;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisSanitize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the single pass of EMOJIS_SANITIZE with EMOJIS_REMOVE followed by the
+ * REGEXP_REPLACE passes and the trim it replaces.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdfEmojisSanitizeBenchmarks {
+
+    private static final Pattern ORPHAN_MODIFIERS = Pattern.compile("[\\x{FE0E}\\x{FE0F}\\x{200D}\\x{1F3FB}-\\x{1F3FF}]");
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final UdfEmojisSanitize udf = new UdfEmojisSanitize();
+    private final UdfEmojisRemove remove = new UdfEmojisRemove();
+
+    @Benchmark
+    public String sanitizeEmojis(TextCorpus corpus) {
+        return udf.sanitizeEmojis(corpus.next());
+    }
+
+    @Benchmark
+    public String sanitizeEmojisWithPlaceholder(TextCorpus corpus) {
+        return udf.sanitizeEmojis(corpus.next(), "<emoji>");
+    }
+
+    @Benchmark
+    public String removeEmojisThenRegexReplace(TextCorpus corpus) {
+        var removed = remove.removeEmojis(corpus.next());
+        var stripped = ORPHAN_MODIFIERS.matcher(removed).replaceAll("");
+        return WHITESPACE.matcher(stripped).replaceAll(" ").trim();
+    }
+
+}
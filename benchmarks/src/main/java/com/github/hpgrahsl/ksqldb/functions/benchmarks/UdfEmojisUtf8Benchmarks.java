@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+package com.github.hpgrahsl.ksqldb.functions.benchmarks;
+
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisContained;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisCount;
+import com.github.hpgrahsl.ksqldb.functions.UdfEmojisExtract;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares scanning UTF-8 encoded text directly with decoding it to a String first
+ * and scanning the String, as ksqlDB does for VARCHAR columns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UdfEmojisUtf8Benchmarks {
+
+    private static final int BATCH_SIZE = 16;
+
+    private final UdfEmojisContained contained = new UdfEmojisContained();
+    private final UdfEmojisCount count = new UdfEmojisCount();
+    private final UdfEmojisExtract extract = new UdfEmojisExtract();
+
+    private byte[][] texts;
+    private ByteBuffer[] buffers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void encode(TextCorpus corpus) {
+        texts = new byte[BATCH_SIZE][];
+        buffers = new ByteBuffer[BATCH_SIZE];
+        for(int i = 0; i < BATCH_SIZE; i++) {
+            texts[i] = corpus.next().getBytes(StandardCharsets.UTF_8);
+            buffers[i] = ByteBuffer.allocateDirect(texts[i].length).put(texts[i]).flip();
+        }
+    }
+
+    private byte[] nextBytes() {
+        next = (next + 1) & (BATCH_SIZE - 1);
+        return texts[next];
+    }
+
+    private ByteBuffer nextBuffer() {
+        next = (next + 1) & (BATCH_SIZE - 1);
+        return buffers[next];
+    }
+
+    @Benchmark
+    public Boolean containsEmojisUtf8() {
+        return contained.containsEmojis(nextBytes());
+    }
+
+    @Benchmark
+    public Boolean decodeThenContainsEmojis() {
+        return contained.containsEmojis(new String(nextBytes(), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Integer countEmojisUtf8() {
+        return count.countEmojis(nextBytes(), false);
+    }
+
+    @Benchmark
+    public Integer countEmojisUtf8DirectBuffer() {
+        return count.countEmojis(nextBuffer(), false);
+    }
+
+    @Benchmark
+    public Integer decodeThenCountEmojis() {
+        return count.countEmojis(new String(nextBytes(), StandardCharsets.UTF_8), false);
+    }
+
+    @Benchmark
+    public List<String> extractEmojisUtf8() {
+        return extract.extractEmojis(nextBytes(), false);
+    }
+
+    @Benchmark
+    public List<String> decodeThenExtractEmojis() {
+        return extract.extractEmojis(new String(nextBytes(), StandardCharsets.UTF_8), false);
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Reports every distinct value once instead of once per row, e.g. the ignored entries of list arguments
+ * which ksqlDB materializes anew for every row. Like {@link ModeCache} it remembers up to {@value #MAX_SIZE}
+ * values, beyond that reports are limited to one per minute.
+ */
+final class DistinctReporter<T> {
+
+    static final int MAX_SIZE = ModeCache.MAX_SIZE;
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Set<T> reported = ConcurrentHashMap.newKeySet();
+    private final AtomicLong lastOverflowReport = new AtomicLong(System.nanoTime() - REPORT_INTERVAL_NANOS);
+    private final Consumer<T> reporter;
+
+    DistinctReporter(Consumer<T> reporter) {
+        this.reporter = reporter;
+    }
+
+    void report(T value) {
+        if(reported.contains(value)) {
+            return;
+        }
+        boolean remembered = reported.size() < MAX_SIZE && reported.add(value);
+        if(remembered || overflowReportDue()) {
+            reporter.accept(value);
+        }
+    }
+
+    private boolean overflowReportDue() {
+        long now = System.nanoTime();
+        long last = lastOverflowReport.get();
+        return now - last >= REPORT_INTERVAL_NANOS && lastOverflowReport.compareAndSet(last, now);
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+/**
+ * Dense lookup tables of the Unicode group (category), subgroup and sentiment score of emojis, indexed by the
+ * emoji ids of an {@link EmojiTable}. Fitzpatrick variants share the attributes of their base emoji.
+ * <p>
+ * Groups and subgroups are taken from the Unicode emoji data, i.e. from the configured version or else from
+ * the one which is shipped with the jar (see {@link UnicodeEmojiData}), so that they are known for the
+ * emoji-java data as well. Emojis which are not part of that data have neither group nor subgroup.
+ * Sentiment scores are the ones of the Emoji Sentiment Ranking (see {@link EmojiSentimentData}), emojis which
+ * aren't ranked there have no score.
+ */
+final class EmojiAttributes {
+
+    enum Level {
+        GROUP, SUBGROUP
+    }
+
+    static final int UNKNOWN = -1;
+
+    private static final String EMOJI_PRESENTATION = "\uFE0F";
+
+    private final int[] groupIds;
+    private final String[] groups;
+    private final int[] subgroupIds;
+    private final String[] subgroups;
+    //NaN for emojis without score
+    private final double[] sentiments;
+
+    private EmojiAttributes(int[] groupIds, String[] groups, int[] subgroupIds, String[] subgroups, double[] sentiments) {
+        this.groupIds = groupIds;
+        this.groups = groups;
+        this.subgroupIds = subgroupIds;
+        this.subgroups = subgroups;
+        this.sentiments = sentiments;
+    }
+
+    static EmojiAttributes getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Builds the attributes of the given table from the given Unicode emoji and sentiment data, groups and
+     * subgroups are numbered in order of the data. Emojis are matched with and without emoji presentation
+     * selectors because emoji-java and the sentiment data often omit them. All emojis are of unknown group and
+     * subgroup if the Unicode emoji data is null and have no sentiment score if the sentiment data is null.
+     */
+    static EmojiAttributes of(EmojiTable table, UnicodeEmojiData data, EmojiSentimentData sentimentData) {
+        int size = table.size();
+        var groupIds = new int[size];
+        var subgroupIds = new int[size];
+        Arrays.fill(groupIds, UNKNOWN);
+        Arrays.fill(subgroupIds, UNKNOWN);
+        var groupIndex = new LinkedHashMap<String, Integer>();
+        var subgroupIndex = new LinkedHashMap<String, Integer>();
+        if(data != null) {
+            for(UnicodeEmojiData.Entry entry : data.entries()) {
+                int group = groupIndex.computeIfAbsent(entry.group, g -> groupIndex.size());
+                int subgroup = subgroupIndex.computeIfAbsent(entry.subgroup, s -> subgroupIndex.size());
+                int id = table.idOf(entry.unicode);
+                if(id == EmojiTable.NO_EMOJI && entry.unicode.indexOf(EMOJI_PRESENTATION) >= 0) {
+                    id = table.idOf(entry.unicode.replace(EMOJI_PRESENTATION, ""));
+                }
+                //fully-qualified sequences come first and win over other variants of the same emoji
+                if(id != EmojiTable.NO_EMOJI && groupIds[id] == UNKNOWN) {
+                    groupIds[id] = group;
+                    subgroupIds[id] = subgroup;
+                }
+            }
+        }
+        var sentiments = new double[size];
+        Arrays.fill(sentiments, Double.NaN);
+        if(sentimentData != null) {
+            sentimentData.scores().forEach((emoji, score) -> {
+                for(String unicode : new String[] {emoji, emoji + EMOJI_PRESENTATION}) {
+                    int id = table.idOf(unicode);
+                    if(id != EmojiTable.NO_EMOJI) {
+                        sentiments[id] = score;
+                    }
+                }
+            });
+        }
+        return new EmojiAttributes(groupIds, groupIndex.keySet().toArray(new String[0]),
+                subgroupIds, subgroupIndex.keySet().toArray(new String[0]), sentiments);
+    }
+
+    int groupCount() {
+        return groups.length;
+    }
+
+    int subgroupCount() {
+        return subgroups.length;
+    }
+
+    /**
+     * Returns the group of the emoji or {@link #UNKNOWN}.
+     */
+    int groupId(int emojiId) {
+        return groupIds[emojiId];
+    }
+
+    String groupName(int groupId) {
+        return groups[groupId];
+    }
+
+    /**
+     * Returns the subgroup of the emoji or {@link #UNKNOWN}.
+     */
+    int subgroupId(int emojiId) {
+        return subgroupIds[emojiId];
+    }
+
+    String subgroupName(int subgroupId) {
+        return subgroups[subgroupId];
+    }
+
+    int categoryId(int emojiId, Level level) {
+        return level == Level.GROUP ? groupIds[emojiId] : subgroupIds[emojiId];
+    }
+
+    String categoryName(int categoryId, Level level) {
+        return level == Level.GROUP ? groups[categoryId] : subgroups[categoryId];
+    }
+
+    int categoryCount(Level level) {
+        return level == Level.GROUP ? groups.length : subgroups.length;
+    }
+
+    boolean hasSentiment(int emojiId) {
+        return !Double.isNaN(sentiments[emojiId]);
+    }
+
+    /**
+     * Returns the sentiment score of the emoji in (-1, 1) or NaN if it has none.
+     */
+    double sentiment(int emojiId) {
+        return sentiments[emojiId];
+    }
+
+    private static EmojiAttributes loadDefault() {
+        return of(EmojiTable.getDefault(), UnicodeEmojiData.configuredOrBundled(), EmojiSentimentData.loadDefault());
+    }
+
+    private static final class DefaultHolder {
+        static final EmojiAttributes DEFAULT = loadDefault();
+    }
+
+}
@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Bulk API to apply the emoji functions to large batches of texts outside of ksqlDB, e.g. in backfill
+ * jobs. Batches are split into chunks which are processed in parallel on a {@link ForkJoinPool} and
+ * results are returned in columnar form, i.e. one array entry or bit per input text in input order.
+ * Random access lists are processed by index without copying them, streams are consumed in bounded
+ * windows of texts, so neither has to be materialized as a whole before the work starts.
+ * <p>
+ * Null texts yield a count of -1, are not contained in the bitset of contains results and have no
+ * extracted emojis.
+ */
+public final class EmojiBatchProcessor {
+
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    //chunks are multiples of 64 texts so that every worker owns whole words of the contains bitset
+    private static final int WORD_BITS = Long.SIZE;
+
+    private static final ThreadLocal<VariantSet> SCRATCH =
+            ThreadLocal.withInitial(() -> new VariantSet(EmojiScanner.getDefault().table()));
+
+    //emojis of the current chunk, grown on demand and reused by all chunks a worker thread processes
+    private static final ThreadLocal<String[]> BUFFER = ThreadLocal.withInitial(() -> new String[DEFAULT_CHUNK_SIZE]);
+
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    private final EmojiScanner scanner = EmojiScanner.getDefault();
+
+    public EmojiBatchProcessor() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public EmojiBatchProcessor(ForkJoinPool pool) {
+        this(pool, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize number of texts below which a chunk is not split any further, rounded up to a multiple of 64
+     */
+    public EmojiBatchProcessor(ForkJoinPool pool, int chunkSize) {
+        if(chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size must be positive but was " + chunkSize);
+        }
+        this.pool = pool;
+        this.chunkSize = (chunkSize + WORD_BITS - 1) / WORD_BITS * WORD_BITS;
+    }
+
+    /**
+     * Random access lists are processed by index without copying them, other lists are copied into an array first.
+     */
+    public int[] count(List<String> texts, boolean unique) {
+        return texts instanceof RandomAccess
+                ? count(texts.size(), texts::get, unique)
+                : count(texts.toArray(new String[0]), unique);
+    }
+
+    /**
+     * Streams are consumed in bounded windows which are processed one after another, so that at most one
+     * window of texts is retained at a time.
+     */
+    public int[] count(Stream<String> texts, boolean unique) {
+        var counts = new int[0];
+        var window = new String[windowSize()];
+        int size = 0;
+        for(var it = texts.iterator(); it.hasNext();) {
+            int length = fill(window, it);
+            var windowCounts = count(length, i -> window[i], unique);
+            if(size + length > counts.length) {
+                counts = Arrays.copyOf(counts, Math.max(size + length, counts.length * 2));
+            }
+            System.arraycopy(windowCounts, 0, counts, size, length);
+            size += length;
+        }
+        return Arrays.copyOf(counts, size);
+    }
+
+    public int[] count(String[] texts, boolean unique) {
+        return count(texts.length, i -> texts[i], unique);
+    }
+
+    private int[] count(int size, IntFunction<String> texts, boolean unique) {
+        var counts = new int[size];
+        forEachChunk(size, (from, to) -> {
+            for(int i = from; i < to; i++) {
+                var text = texts.apply(i);
+                counts[i] = text == null ? -1 : unique ? scanner.countUnique(text) : scanner.count(text);
+            }
+        });
+        return counts;
+    }
+
+    /**
+     * Random access lists are processed by index without copying them, other lists are copied into an array first.
+     */
+    public BitSet contains(List<String> texts) {
+        return texts instanceof RandomAccess
+                ? contains(texts.size(), texts::get)
+                : contains(texts.toArray(new String[0]));
+    }
+
+    /**
+     * Streams are consumed in bounded windows which are processed one after another, so that at most one
+     * window of texts is retained at a time.
+     */
+    public BitSet contains(Stream<String> texts) {
+        var contained = new BitSet();
+        var window = new String[windowSize()];
+        int base = 0;
+        for(var it = texts.iterator(); it.hasNext();) {
+            int length = fill(window, it);
+            int offset = base;
+            contains(length, i -> window[i]).stream().forEach(i -> contained.set(offset + i));
+            base += length;
+        }
+        return contained;
+    }
+
+    public BitSet contains(String[] texts) {
+        return contains(texts.length, i -> texts[i]);
+    }
+
+    private BitSet contains(int size, IntFunction<String> texts) {
+        var words = new long[(size + WORD_BITS - 1) / WORD_BITS];
+        forEachChunk(size, (from, to) -> {
+            for(int i = from; i < to; i++) {
+                var text = texts.apply(i);
+                if(text != null && scanner.contains(text)) {
+                    words[i / WORD_BITS] |= 1L << i;
+                }
+            }
+        });
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Random access lists are processed by index without copying them, other lists are copied into an array first.
+     */
+    public Extracted extract(List<String> texts, boolean unique) {
+        return texts instanceof RandomAccess
+                ? extract(texts.size(), texts::get, unique)
+                : extract(texts.toArray(new String[0]), unique);
+    }
+
+    /**
+     * Streams are consumed in bounded windows which are processed one after another, so that at most one
+     * window of texts is retained at a time.
+     */
+    public Extracted extract(Stream<String> texts, boolean unique) {
+        var emojis = new String[0];
+        var offsets = new int[1];
+        var window = new String[windowSize()];
+        int size = 0;
+        for(var it = texts.iterator(); it.hasNext();) {
+            int length = fill(window, it);
+            var extracted = extract(length, i -> window[i], unique);
+            int base = offsets[size];
+            int count = extracted.emojis.length;
+            if(base + count > emojis.length) {
+                emojis = Arrays.copyOf(emojis, Math.max(base + count, emojis.length * 2));
+            }
+            System.arraycopy(extracted.emojis, 0, emojis, base, count);
+            if(size + length + 1 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, Math.max(size + length + 1, offsets.length * 2));
+            }
+            for(int i = 1; i <= length; i++) {
+                offsets[size + i] = base + extracted.offsets[i];
+            }
+            size += length;
+        }
+        return new Extracted(Arrays.copyOf(emojis, offsets[size]), Arrays.copyOf(offsets, size + 1));
+    }
+
+    public Extracted extract(String[] texts, boolean unique) {
+        return extract(texts.length, i -> texts[i], unique);
+    }
+
+    /**
+     * Extracts the emojis of all texts into one flattened array. Every chunk scans its texts only once into the
+     * reusable buffer of its worker thread while recording the count per text and keeps an exactly sized copy,
+     * because its results are needed until the offsets of all texts are known. Once they are, every chunk copies
+     * its results in one piece into its slice of the flattened array.
+     */
+    private Extracted extract(int size, IntFunction<String> texts, boolean unique) {
+        var offsets = new int[size + 1];
+        //chunks start at multiples of the chunk size, so every chunk owns results from / chunkSize
+        var results = new String[(size + chunkSize - 1) / chunkSize][];
+        forEachChunk(size, (from, to) -> {
+            var seen = SCRATCH.get();
+            var buffer = BUFFER.get();
+            int count = 0;
+            for(int i = from; i < to; i++) {
+                var text = texts.apply(i);
+                if(text == null) {
+                    continue;
+                }
+                int before = count;
+                seen.clear();
+                for(long m = scanner.next(text, 0); m != EmojiScanner.NO_MATCH; m = scanner.next(text, scanner.end(m))) {
+                    if(!unique || seen.add(scanner.variant(m))) {
+                        if(count == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, count * 2);
+                            BUFFER.set(buffer);
+                        }
+                        buffer[count++] = scanner.emoji(m);
+                    }
+                }
+                offsets[i + 1] = count - before;
+            }
+            results[from / chunkSize] = Arrays.copyOf(buffer, count);
+        });
+        for(int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        var emojis = new String[offsets[size]];
+        forEachChunk(size, (from, to) ->
+                System.arraycopy(results[from / chunkSize], 0, emojis, offsets[from], offsets[to] - offsets[from]));
+        return new Extracted(emojis, offsets);
+    }
+
+    private int windowSize() {
+        return chunkSize * Math.max(1, pool.getParallelism()) * 4;
+    }
+
+    private static int fill(String[] window, Iterator<String> texts) {
+        int length = 0;
+        while(length < window.length && texts.hasNext()) {
+            window[length++] = texts.next();
+        }
+        Arrays.fill(window, length, window.length, null);
+        return length;
+    }
+
+    private void forEachChunk(int size, ChunkAction action) {
+        if(size == 0) {
+            return;
+        }
+        pool.invoke(new ChunkTask(0, size, chunkSize, action));
+    }
+
+    /**
+     * Flattened extraction results where the emojis of text i are located at
+     * {@code [offsets()[i], offsets()[i+1])} of {@link #emojis()}.
+     */
+    public static final class Extracted {
+
+        private final String[] emojis;
+        private final int[] offsets;
+
+        Extracted(String[] emojis, int[] offsets) {
+            this.emojis = emojis;
+            this.offsets = offsets;
+        }
+
+        /**
+         * Returns the number of texts.
+         */
+        public int size() {
+            return offsets.length - 1;
+        }
+
+        /**
+         * Returns the flattened emojis of all texts, the array is not copied and must not be modified.
+         */
+        public String[] emojis() {
+            return emojis;
+        }
+
+        /**
+         * Returns the offsets into the flattened emojis, the array is not copied and must not be modified.
+         */
+        public int[] offsets() {
+            return offsets;
+        }
+
+        public List<String> emojisOf(int index) {
+            return Collections.unmodifiableList(Arrays.asList(emojis).subList(offsets[index], offsets[index + 1]));
+        }
+
+    }
+
+    @FunctionalInterface
+    private interface ChunkAction {
+        void apply(int from, int to);
+    }
+
+    private static final class ChunkTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        private final transient ChunkAction action;
+
+        ChunkTask(int from, int to, int chunkSize, ChunkAction action) {
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if(to - from <= chunkSize) {
+                action.apply(from, to);
+                return;
+            }
+            //split at a multiple of the chunk size which keeps chunk boundaries word aligned
+            int chunks = (to - from + chunkSize - 1) / chunkSize;
+            int mid = from + chunks / 2 * chunkSize;
+            invokeAll(new ChunkTask(from, mid, chunkSize, action), new ChunkTask(mid, to, chunkSize, action));
+        }
+
+    }
+
+}
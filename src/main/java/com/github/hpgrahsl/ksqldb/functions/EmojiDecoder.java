@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reverse of the {@link EmojiTranscoder}, i.e. replaces textual emoji representations by the emojis.
+ * All representations of all emojis of an {@link EmojiTable} are compiled into one Aho-Corasick automaton
+ * which is stored in flat arrays, the goto function in the same compressed sparse row layout as the trie
+ * of the table. Decoding is a single scan over the text which replaces the leftmost-longest occurrences.
+ * It only steps back behind the end of an occurrence once it turned out to be the longest one, which is
+ * bounded by the length of the longest representation.
+ * <p>
+ * Fitzpatrick modifiers are matched as separate suffix right after the representation of an emoji and are
+ * decoded for every emoji, so that the output of {@link EmojiTranscoder} round-trips.
+ */
+final class EmojiDecoder {
+
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+    private static final int NO_PATTERN = -1;
+    private static final int ROOT_CHARS = 128;
+
+    //how a representation is combined with a directly following Fitzpatrick modifier suffix
+    private static final int MODIFIER_NONE = 0;
+    private static final int MODIFIER_OPTIONAL = 1;
+    private static final int MODIFIER_REQUIRED = 2;
+
+    private final EmojiTable table;
+
+    //modifier suffix k stands for the Fitzpatrick type k % FITZPATRICK_TYPES
+    private final String[] modifiers;
+
+    //direct lookup of the root's children for ASCII chars, all other chars lead back to the root
+    private final int[] rootTargets;
+
+    //edges of node n are [edgeOffsets[n], edgeOffsets[n+1]) sorted by char
+    private final int[] edgeOffsets;
+    private final char[] edgeChars;
+    private final int[] edgeTargets;
+
+    private final int[] failures;
+    private final int[] depths;
+    //node of the longest pattern which is a suffix of the node's string or NO_NODE
+    private final int[] outputs;
+    //pattern of the node, i.e. emoji id << 2 | modifier handling, or NO_PATTERN
+    private final int[] patterns;
+
+    private EmojiDecoder(EmojiTable table, Map<String, Integer> representations, String[] modifiers) {
+        this.table = table;
+        this.modifiers = modifiers;
+
+        var root = new TrieNode();
+        int nodeCount = 1;
+        for(Map.Entry<String, Integer> e : representations.entrySet()) {
+            var node = root;
+            for(char c : e.getKey().toCharArray()) {
+                var child = node.children.get(c);
+                if(child == null) {
+                    child = new TrieNode();
+                    node.children.put(c, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            node.pattern = e.getValue();
+        }
+
+        this.rootTargets = new int[ROOT_CHARS];
+        this.edgeOffsets = new int[nodeCount + 1];
+        this.edgeChars = new char[nodeCount - 1];
+        this.edgeTargets = new int[nodeCount - 1];
+        this.failures = new int[nodeCount];
+        this.depths = new int[nodeCount];
+        this.outputs = new int[nodeCount];
+        this.patterns = new int[nodeCount];
+
+        //breadth first numbering so that all children of a node occupy consecutive edge slots and
+        //failure links always point to nodes which have already been numbered and linked
+        var queue = new ArrayDeque<TrieNode>();
+        root.index = ROOT;
+        root.failure = root;
+        queue.add(root);
+        int nextIndex = 1;
+        int edge = 0;
+        while(!queue.isEmpty()) {
+            var node = queue.poll();
+            patterns[node.index] = node.pattern;
+            outputs[node.index] = node.pattern != NO_PATTERN ? node.index : node.failure.output;
+            node.output = outputs[node.index];
+            failures[node.index] = node.failure.index;
+            depths[node.index] = node.depth;
+            edgeOffsets[node.index] = edge;
+            for(Map.Entry<Character, TrieNode> e : node.children.entrySet()) {
+                char c = e.getKey();
+                var child = e.getValue();
+                child.index = nextIndex++;
+                child.depth = node.depth + 1;
+                child.failure = failureOf(root, node, c);
+                edgeChars[edge] = c;
+                edgeTargets[edge] = child.index;
+                edge++;
+                queue.add(child);
+            }
+        }
+        edgeOffsets[nodeCount] = edge;
+
+        Arrays.fill(rootTargets, ROOT);
+        for(int e = edgeOffsets[ROOT]; e < edgeOffsets[ROOT + 1]; e++) {
+            if(edgeChars[e] < ROOT_CHARS) {
+                rootTargets[edgeChars[e]] = edgeTargets[e];
+            }
+        }
+    }
+
+    /**
+     * Builds the decoder of the aliases as written by {@link EmojiTranscoder#aliases}, i.e. ':alias:' and
+     * ':alias|type_3:' for every alias of every emoji. An alias which is shared by several emojis decodes to
+     * the one with the lowest id.
+     */
+    static EmojiDecoder aliases(EmojiTable table) {
+        var representations = new TreeMap<String, Integer>();
+        for(int id = 0; id < table.size(); id++) {
+            for(int a = 0; a < table.aliasCount(id); a++) {
+                var alias = ":" + table.alias(id, a);
+                representations.putIfAbsent(alias + ":", id << 2 | MODIFIER_NONE);
+                representations.putIfAbsent(alias + "|", id << 2 | MODIFIER_REQUIRED);
+            }
+        }
+        var modifiers = new String[EmojiTable.FITZPATRICK_TYPES];
+        for(int f = 0; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+            modifiers[f] = EmojiTable.fitzpatrickName(f) + ":";
+        }
+        return new EmojiDecoder(table, representations, modifiers);
+    }
+
+    /**
+     * Builds the decoder of both the decimal and the hexadecimal HTML codepoints as written by
+     * {@link EmojiTranscoder#htmlDecimal} and {@link EmojiTranscoder#htmlHexadecimal}.
+     */
+    static EmojiDecoder htmlCodepoints(EmojiTable table) {
+        var representations = new TreeMap<String, Integer>();
+        for(int id = 0; id < table.size(); id++) {
+            representations.putIfAbsent(table.htmlDecimal(id), id << 2 | MODIFIER_OPTIONAL);
+            representations.putIfAbsent(table.htmlHexadecimal(id), id << 2 | MODIFIER_OPTIONAL);
+        }
+        var modifiers = new String[EmojiTable.FITZPATRICK_TYPES * 2];
+        for(int f = 0; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+            int cp = EmojiTable.fitzpatrickUnicode(f).codePointAt(0);
+            modifiers[f] = "&#" + cp + ";";
+            modifiers[EmojiTable.FITZPATRICK_TYPES + f] = "&#x" + Integer.toHexString(cp) + ";";
+        }
+        return new EmojiDecoder(table, representations, modifiers);
+    }
+
+    static EmojiDecoder defaultAliases() {
+        return AliasesHolder.DEFAULT;
+    }
+
+    static EmojiDecoder defaultHtmlCodepoints() {
+        return HtmlCodepointsHolder.DEFAULT;
+    }
+
+    String decode(String text) {
+        int length = text.length();
+        StringBuilder sb = null;
+        int copied = 0;
+        int state = ROOT;
+        int bestStart = -1;
+        int bestEnd = -1;
+        int bestId = -1;
+        int bestFitzpatrick = EmojiTable.NO_FITZPATRICK;
+        int i = 0;
+        while(true) {
+            if(i < length) {
+                state = step(state, text.charAt(i++));
+                int output = outputs[state];
+                if(output != NO_NODE) {
+                    int pattern = patterns[output];
+                    int start = i - depths[output];
+                    int end = i;
+                    int modifier = (pattern & 3) != MODIFIER_NONE ? modifierAt(text, i) : -1;
+                    if(modifier >= 0) {
+                        end += modifiers[modifier].length();
+                    }
+                    boolean valid = modifier >= 0 || (pattern & 3) != MODIFIER_REQUIRED;
+                    if(valid && (bestStart < 0 || start < bestStart || (start == bestStart && end > bestEnd))) {
+                        bestStart = start;
+                        bestEnd = end;
+                        bestId = pattern >>> 2;
+                        bestFitzpatrick = modifier >= 0 ? modifier % EmojiTable.FITZPATRICK_TYPES : EmojiTable.NO_FITZPATRICK;
+                    }
+                }
+            }
+            //commit the best occurrence as soon as no occurrence which starts at or before it can follow
+            if(bestStart >= 0 && (i - depths[state] > bestStart || i == length)) {
+                if(sb == null) {
+                    sb = new StringBuilder(length);
+                }
+                sb.append(text, copied, bestStart);
+                table.appendUnicode(sb, bestId, EmojiTable.NO_FITZPATRICK);
+                if(bestFitzpatrick != EmojiTable.NO_FITZPATRICK) {
+                    sb.append(EmojiTable.fitzpatrickUnicode(bestFitzpatrick));
+                }
+                copied = bestEnd;
+                i = bestEnd;
+                state = ROOT;
+                bestStart = -1;
+            } else if(i == length) {
+                break;
+            }
+        }
+        return sb == null ? text : sb.append(text, copied, length).toString();
+    }
+
+    private int step(int state, char c) {
+        while(state != ROOT) {
+            int target = child(state, c);
+            if(target != NO_NODE) {
+                return target;
+            }
+            state = failures[state];
+        }
+        return c < ROOT_CHARS ? rootTargets[c] : ROOT;
+    }
+
+    private int child(int node, char c) {
+        for(int e = edgeOffsets[node]; e < edgeOffsets[node + 1]; e++) {
+            if(edgeChars[e] == c) {
+                return edgeTargets[e];
+            }
+        }
+        return NO_NODE;
+    }
+
+    private int modifierAt(String text, int index) {
+        for(int k = 0; k < modifiers.length; k++) {
+            if(text.startsWith(modifiers[k], index)) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private static TrieNode failureOf(TrieNode root, TrieNode parent, char c) {
+        if(parent == root) {
+            return root;
+        }
+        for(var node = parent.failure; ; node = node.failure) {
+            var target = node.children.get(c);
+            if(target != null) {
+                return target;
+            }
+            if(node == root) {
+                return root;
+            }
+        }
+    }
+
+    private static final class TrieNode {
+        final TreeMap<Character, TrieNode> children = new TreeMap<>();
+        int pattern = NO_PATTERN;
+        int index;
+        int depth;
+        TrieNode failure;
+        int output = NO_NODE;
+    }
+
+    private static final class AliasesHolder {
+        static final EmojiDecoder DEFAULT = aliases(EmojiTable.getDefault());
+    }
+
+    private static final class HtmlCodepointsHolder {
+        static final EmojiDecoder DEFAULT = htmlCodepoints(EmojiTable.getDefault());
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * HyperLogLog sketch over distinct emojis with 2^10 one-byte registers, i.e. a fixed serialized size of
+ * 1 KB and a standard error of about 3.25%. Emojis are hashed by their canonical unicode whose hashes
+ * are precomputed per emoji variant, so adding the occurrences of a text neither creates strings nor
+ * hashes any chars.
+ */
+final class EmojiHyperLogLog {
+
+    static final int PRECISION = 10;
+    static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1.0 + 1.079 / REGISTERS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final long[] VARIANT_HASHES = variantHashes(SCANNER);
+
+    private final byte[] registers;
+
+    EmojiHyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private EmojiHyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    void addAll(String text) {
+        addAll(text, SCANNER.next(text, 0));
+    }
+
+    /**
+     * Adds the given occurrence and all further ones of the text, so that callers can look for the first
+     * occurrence before they deserialize a sketch without scanning the text twice.
+     */
+    void addAll(String text, long firstMatch) {
+        for(long m = firstMatch; m != EmojiScanner.NO_MATCH; m = SCANNER.next(text, SCANNER.end(m))) {
+            addHash(VARIANT_HASHES[SCANNER.variant(m)]);
+        }
+    }
+
+    void add(String emoji) {
+        addHash(hash(emoji));
+    }
+
+    void addHash(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        //the guard bit bounds the rank in case all remaining bits are zero
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if(rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    EmojiHyperLogLog merge(EmojiHyperLogLog other) {
+        var merged = new byte[REGISTERS];
+        for(int i = 0; i < REGISTERS; i++) {
+            merged[i] = (byte) Math.max(registers[i], other.registers[i]);
+        }
+        return new EmojiHyperLogLog(merged);
+    }
+
+    long estimate() {
+        double sum = 0.0;
+        int zeros = 0;
+        for(byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if(register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        //linear counting is far more accurate for small cardinalities
+        if(estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    byte[] toBytes() {
+        return Arrays.copyOf(registers, REGISTERS);
+    }
+
+    static EmojiHyperLogLog fromBytes(byte[] bytes) {
+        if(bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("expected " + REGISTERS + " HLL registers but got " + bytes.length);
+        }
+        return new EmojiHyperLogLog(Arrays.copyOf(bytes, REGISTERS));
+    }
+
+    /**
+     * Serializes the registers as Base64 string, an empty string stands for an empty sketch.
+     */
+    String serialize() {
+        return Base64.getEncoder().encodeToString(registers);
+    }
+
+    static EmojiHyperLogLog deserialize(String serialized) {
+        if(serialized == null || serialized.isEmpty()) {
+            return new EmojiHyperLogLog();
+        }
+        return fromBytes(Base64.getDecoder().decode(serialized));
+    }
+
+    /**
+     * 64-bit FNV-1a over the chars followed by the MurmurHash3 finalizer to spread the bits.
+     */
+    static long hash(CharSequence chars) {
+        long h = 0xcbf29ce484222325L;
+        for(int i = 0; i < chars.length(); i++) {
+            h ^= chars.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static long[] variantHashes(EmojiScanner scanner) {
+        var table = scanner.table();
+        var hashes = new long[table.size() * (EmojiTable.FITZPATRICK_TYPES + 1)];
+        //hashed from a reused builder so that the canonical strings of all variants aren't materialized
+        var unicode = new StringBuilder();
+        for(int id = 0; id < table.size(); id++) {
+            for(int f = EmojiTable.NO_FITZPATRICK; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+                unicode.setLength(0);
+                table.appendUnicode(unicode, id, f);
+                hashes[EmojiScanner.variant(id, f)] = hash(unicode);
+            }
+        }
+        return hashes;
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build time generator of the binary emoji index which {@link EmojiTable} loads at runtime. It is run
+ * by the exec-maven-plugin during the process-classes phase with the classes output directory as argument.
+ */
+public final class EmojiIndexGenerator {
+
+    private EmojiIndexGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if(args.length != 1) {
+            throw new IllegalArgumentException("expected the classes output directory as single argument");
+        }
+        Path target = Paths.get(args[0])
+                .resolve(EmojiTable.class.getPackageName().replace('.', '/'))
+                .resolve(EmojiTable.INDEX_RESOURCE);
+        Files.createDirectories(target.getParent());
+        try(var out = Files.newOutputStream(target)) {
+            EmojiTable.of(EmojiManager.getAll()).writeTo(out);
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compiled form of a list of specific emojis. Membership is tracked in bitsets indexed by emoji id
+ * and by emoji variant, both derived from the {@link EmojiTable} the matcher was compiled against.
+ * A base emoji entry matches all of its skin tone variants when removing, whereas an entry with a
+ * skin tone modifier only ever matches that very variant.
+ * <p>
+ * Null entries as well as entries which are no known emojis are ignored.
+ */
+final class EmojiMatcher {
+
+    private final EmojiScanner scanner;
+    private final List<String> specificEmojis;
+    private final List<String> ignoredEntries;
+    private final long[] emojiIds;
+    private final long[] variants;
+    private final boolean empty;
+
+    private EmojiMatcher(EmojiScanner scanner, List<String> specificEmojis) {
+        var table = scanner.table();
+        this.scanner = scanner;
+        this.specificEmojis = Collections.unmodifiableList(new ArrayList<>(specificEmojis));
+        this.emojiIds = new long[(table.size() >>> 6) + 1];
+        this.variants = new long[((table.size() * (EmojiTable.FITZPATRICK_TYPES + 1)) >>> 6) + 1];
+        var ignored = new ArrayList<String>();
+        for(String emoji : this.specificEmojis) {
+            int id = table.idOf(emoji);
+            if(id != EmojiTable.NO_EMOJI) {
+                set(emojiIds, id);
+                set(variants, EmojiScanner.variant(id, EmojiTable.NO_FITZPATRICK));
+                continue;
+            }
+            int baseLength = emoji == null ? 0 : emoji.length() - 2;
+            int base = baseLength > 0 ? table.idOf(emoji.substring(0, baseLength)) : EmojiTable.NO_EMOJI;
+            int fitzpatrick = baseLength > 0 ? EmojiTable.fitzpatrickAt(emoji, baseLength) : EmojiTable.NO_FITZPATRICK;
+            if(base != EmojiTable.NO_EMOJI && fitzpatrick != EmojiTable.NO_FITZPATRICK && table.supportsFitzpatrick(base)) {
+                set(variants, EmojiScanner.variant(base, fitzpatrick));
+                continue;
+            }
+            ignored.add(emoji);
+        }
+        this.ignoredEntries = Collections.unmodifiableList(ignored);
+        this.empty = ignored.size() == this.specificEmojis.size();
+    }
+
+    static EmojiMatcher compile(EmojiScanner scanner, List<String> specificEmojis) {
+        return new EmojiMatcher(scanner, specificEmojis);
+    }
+
+    /**
+     * Tells whether this matcher was compiled from a list with the given content. ksqlDB materializes
+     * array literals anew for every row, which is why the content rather than the instance is compared.
+     */
+    boolean isCompiledFrom(List<String> specificEmojis) {
+        return this.specificEmojis.equals(specificEmojis);
+    }
+
+    List<String> ignoredEntries() {
+        return ignoredEntries;
+    }
+
+    /**
+     * Checks if the text contains any of the specific emojis and stops scanning at the first hit.
+     */
+    boolean containedIn(String text) {
+        if(empty) {
+            return false;
+        }
+        for(long m = scanner.next(text, 0); m != EmojiScanner.NO_MATCH; m = scanner.next(text, scanner.end(m))) {
+            if(isSet(variants, scanner.variant(m))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    String removeFrom(String text) {
+        if(empty) {
+            return text;
+        }
+        return scanner.rewrite(text, (sb, m) -> {
+            if(!isSet(emojiIds, EmojiScanner.emojiId(m)) && !isSet(variants, scanner.variant(m))) {
+                sb.append(text, EmojiScanner.start(m), scanner.end(m));
+            }
+        });
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+/**
+ * Folds emojis to a canonical base emoji of the {@link EmojiTable}, e.g. to get low cardinality grouping keys.
+ * Fitzpatrick modifiers and variation selectors are always folded, gender and hair components optionally.
+ * Gender folding prefers the gender neutral form (e.g. '👩' and '👨' both fold to '🧑') and drops gender signs
+ * (e.g. '🏃‍♀️' folds to '🏃'). A fold only applies if the folded emoji is part of the table, otherwise the
+ * next weaker fold is tried down to keeping the emoji as it is.
+ * <p>
+ * All folds are resolved per emoji id once, so normalizing is an array lookup per occurrence during the scan.
+ */
+final class EmojiNormalizer {
+
+    private static final int ZERO_WIDTH_JOINER = 0x200D;
+    private static final int VARIATION_SELECTOR_15 = 0xFE0E;
+    private static final int VARIATION_SELECTOR_16 = 0xFE0F;
+    private static final int FITZPATRICK_FIRST = 0x1F3FB;
+    private static final int FITZPATRICK_LAST = 0x1F3FF;
+    private static final int HAIR_FIRST = 0x1F9B0;
+    private static final int HAIR_LAST = 0x1F9B3;
+    private static final int FEMALE_SIGN = 0x2640;
+    private static final int MALE_SIGN = 0x2642;
+
+    //gendered person emojis and their gender neutral forms
+    private static final int[][] GENDER_NEUTRAL_FORMS = {
+            {0x1F468, 0x1F9D1}, {0x1F469, 0x1F9D1}, {0x1F466, 0x1F9D2}, {0x1F467, 0x1F9D2},
+            {0x1F474, 0x1F9D3}, {0x1F475, 0x1F9D3}
+    };
+
+    private final EmojiScanner scanner;
+    private final boolean foldGender;
+    private final boolean foldHair;
+    private final int[] normalIds;
+
+    private EmojiNormalizer(EmojiScanner scanner, boolean foldGender, boolean foldHair) {
+        var table = scanner.table();
+        this.scanner = scanner;
+        this.foldGender = foldGender;
+        this.foldHair = foldHair;
+        this.normalIds = new int[table.size()];
+        for(int id = 0; id < normalIds.length; id++) {
+            normalIds[id] = fold(table, id);
+        }
+    }
+
+    static EmojiNormalizer of(EmojiScanner scanner, boolean foldGender, boolean foldHair) {
+        return new EmojiNormalizer(scanner, foldGender, foldHair);
+    }
+
+    /**
+     * Returns the normalizer for the default scanner. All combinations of folds are created once on first use,
+     * so that rows only read a final array without any locking.
+     */
+    static EmojiNormalizer getDefault(boolean foldGender, boolean foldHair) {
+        return DefaultHolder.DEFAULTS[(foldGender ? 2 : 0) | (foldHair ? 1 : 0)];
+    }
+
+    int normalize(int emojiId) {
+        return normalIds[emojiId];
+    }
+
+    /**
+     * Returns the variant key of the normalized occurrence, which never carries a Fitzpatrick modifier.
+     */
+    int variant(long match) {
+        return EmojiScanner.variant(normalIds[EmojiScanner.emojiId(match)], EmojiTable.NO_FITZPATRICK);
+    }
+
+    /**
+     * Replaces every emoji occurrence by its canonical base emoji, variation selectors which directly
+     * follow an occurrence are dropped as well.
+     */
+    String normalize(String text) {
+        var table = scanner.table();
+        StringBuilder sb = null;
+        int prev = 0;
+        for(long m = scanner.next(text, 0); m != EmojiScanner.NO_MATCH; m = scanner.next(text, prev)) {
+            int start = EmojiScanner.start(m);
+            int end = scanner.end(m);
+            while(end < text.length() && isVariationSelector(text.charAt(end))) {
+                end++;
+            }
+            var normalized = table.unicode(normalIds[EmojiScanner.emojiId(m)]);
+            if(sb == null) {
+                if(end - start == normalized.length() && text.startsWith(normalized, start)) {
+                    prev = end;
+                    continue;
+                }
+                sb = new StringBuilder(text.length()).append(text, 0, start);
+            } else {
+                sb.append(text, prev, start);
+            }
+            sb.append(normalized);
+            prev = end;
+        }
+        return sb == null ? text : sb.append(text, prev, text.length()).toString();
+    }
+
+    private int fold(EmojiTable table, int id) {
+        var codepoints = new int[table.codepointCount(id)];
+        for(int i = 0; i < codepoints.length; i++) {
+            codepoints[i] = table.codepointAt(id, i);
+        }
+        //strongest fold first, weaker ones only in case the folded emoji is unknown
+        for(int weakening = 0; weakening < 4; weakening++) {
+            boolean gender = foldGender && (weakening & 1) == 0;
+            boolean hair = foldHair && (weakening & 2) == 0;
+            var folded = fold(codepoints, gender, hair);
+            int foldedId = folded.isEmpty() ? EmojiTable.NO_EMOJI : table.idOf(folded);
+            if(foldedId != EmojiTable.NO_EMOJI) {
+                return foldedId;
+            }
+        }
+        return id;
+    }
+
+    private static String fold(int[] codepoints, boolean gender, boolean hair) {
+        var sb = new StringBuilder();
+        for(int i = 0; i < codepoints.length; i++) {
+            int cp = codepoints[i];
+            if(cp == VARIATION_SELECTOR_15 || cp == VARIATION_SELECTOR_16 || (cp >= FITZPATRICK_FIRST && cp <= FITZPATRICK_LAST)) {
+                continue;
+            }
+            if(cp == ZERO_WIDTH_JOINER && i + 1 < codepoints.length) {
+                int next = codepoints[i + 1];
+                if((hair && next >= HAIR_FIRST && next <= HAIR_LAST) || (gender && (next == FEMALE_SIGN || next == MALE_SIGN))) {
+                    i++;
+                    continue;
+                }
+            }
+            sb.appendCodePoint(gender ? genderNeutral(cp) : cp);
+        }
+        return sb.toString();
+    }
+
+    private static int genderNeutral(int cp) {
+        for(int[] form : GENDER_NEUTRAL_FORMS) {
+            if(form[0] == cp) {
+                return form[1];
+            }
+        }
+        return cp;
+    }
+
+    private static boolean isVariationSelector(char c) {
+        return c == VARIATION_SELECTOR_15 || c == VARIATION_SELECTOR_16;
+    }
+
+    private static final class DefaultHolder {
+        //indexed by (foldGender ? 2 : 0) | (foldHair ? 1 : 0)
+        static final EmojiNormalizer[] DEFAULTS = {
+                of(EmojiScanner.getDefault(), false, false), of(EmojiScanner.getDefault(), false, true),
+                of(EmojiScanner.getDefault(), true, false), of(EmojiScanner.getDefault(), true, true)
+        };
+    }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compiled form of a mapping from emojis to replacements. Replacements are looked up by emoji variant
+ * in a dense table derived from the {@link EmojiTable} the replacer was compiled against. A key without
+ * Fitzpatrick modifier applies to all skin tones of the emoji unless one is mapped on its own.
+ * <p>
+ * Emojis which aren't mapped are replaced by the default replacement or kept if there is none. A variation
+ * selector directly following a replaced emoji (e.g. the one of '❤️') is replaced together with the emoji.
+ * Entries with null values as well as keys which are no known emojis are ignored.
+ */
+final class EmojiReplacer {
+
+    private static final int NO_REPLACEMENT = -1;
+    private static final char VARIATION_SELECTOR_16 = '\uFE0F';
+
+    private final EmojiScanner scanner;
+    private final Map<String, String> mapping;
+    private final String defaultReplacement;
+    private final List<String> ignoredKeys;
+    //indexed by emoji variant, references the replacements or NO_REPLACEMENT
+    private final int[] replacementIndices;
+    private final String[] replacements;
+
+    private EmojiReplacer(EmojiScanner scanner, Map<String, String> mapping, String defaultReplacement) {
+        var table = scanner.table();
+        this.scanner = scanner;
+        this.mapping = Collections.unmodifiableMap(new LinkedHashMap<>(mapping));
+        this.defaultReplacement = defaultReplacement;
+        this.replacementIndices = new int[table.size() * (EmojiTable.FITZPATRICK_TYPES + 1)];
+        Arrays.fill(replacementIndices, NO_REPLACEMENT);
+        var values = new ArrayList<String>();
+        var ignored = new ArrayList<String>();
+        var variants = new ArrayList<Map.Entry<String, String>>();
+        //base emojis first, they cover all of their variants unless these are mapped on their own
+        for(Map.Entry<String, String> e : this.mapping.entrySet()) {
+            int id = e.getKey() == null || e.getValue() == null ? EmojiTable.NO_EMOJI : idOf(table, e.getKey());
+            if(id == EmojiTable.NO_EMOJI) {
+                variants.add(e);
+                continue;
+            }
+            values.add(e.getValue());
+            for(int f = EmojiTable.NO_FITZPATRICK; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+                replacementIndices[EmojiScanner.variant(id, f)] = values.size() - 1;
+            }
+        }
+        for(Map.Entry<String, String> e : variants) {
+            var key = e.getKey();
+            int baseLength = key == null || e.getValue() == null ? 0 : key.length() - 2;
+            int base = baseLength > 0 ? idOf(table, key.substring(0, baseLength)) : EmojiTable.NO_EMOJI;
+            int fitzpatrick = baseLength > 0 ? EmojiTable.fitzpatrickAt(key, baseLength) : EmojiTable.NO_FITZPATRICK;
+            if(base != EmojiTable.NO_EMOJI && fitzpatrick != EmojiTable.NO_FITZPATRICK) {
+                values.add(e.getValue());
+                replacementIndices[EmojiScanner.variant(base, fitzpatrick)] = values.size() - 1;
+                continue;
+            }
+            ignored.add(key);
+        }
+        this.replacements = values.toArray(new String[0]);
+        this.ignoredKeys = Collections.unmodifiableList(ignored);
+    }
+
+    /**
+     * Compiles the mapping, the default replacement may be null to keep emojis which aren't mapped.
+     */
+    static EmojiReplacer compile(EmojiScanner scanner, Map<String, String> mapping, String defaultReplacement) {
+        return new EmojiReplacer(scanner, mapping, defaultReplacement);
+    }
+
+    /**
+     * Tells whether this replacer was compiled from a mapping with the given content. ksqlDB materializes
+     * map literals anew for every row, which is why the content rather than the instance is compared.
+     */
+    boolean isCompiledFrom(Map<String, String> mapping, String defaultReplacement) {
+        return Objects.equals(this.defaultReplacement, defaultReplacement) && this.mapping.equals(mapping);
+    }
+
+    List<String> ignoredKeys() {
+        return ignoredKeys;
+    }
+
+    String replaceIn(String text) {
+        long m = scanner.next(text, 0);
+        if(m == EmojiScanner.NO_MATCH) {
+            return text;
+        }
+        var sb = new StringBuilder(text.length());
+        int prev = 0;
+        for(; m != EmojiScanner.NO_MATCH; m = scanner.next(text, prev)) {
+            int start = EmojiScanner.start(m);
+            int end = scanner.end(m);
+            int index = replacementIndices[EmojiScanner.variant(EmojiScanner.emojiId(m), EmojiScanner.fitzpatrick(m))];
+            var replacement = index != NO_REPLACEMENT ? replacements[index] : defaultReplacement;
+            sb.append(text, prev, start);
+            if(replacement == null) {
+                sb.append(text, start, end);
+            } else {
+                sb.append(replacement);
+                if(end < text.length() && text.charAt(end) == VARIATION_SELECTOR_16) {
+                    end++;
+                }
+            }
+            prev = end;
+        }
+        return sb.append(text, prev, text.length()).toString();
+    }
+
+    /**
+     * Looks up the emoji, keys with variation selectors are also accepted in case the emoji is known without.
+     */
+    private static int idOf(EmojiTable table, String emoji) {
+        int id = table.idOf(emoji);
+        if(id == EmojiTable.NO_EMOJI && emoji.indexOf(VARIATION_SELECTOR_16) >= 0) {
+            id = table.idOf(emoji.replace(String.valueOf(VARIATION_SELECTOR_16), ""));
+        }
+        return id;
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Objects;
+
+/**
+ * Sanitizes text in a single pass: emojis are removed or replaced by a placeholder, orphaned emoji
+ * modifiers which are left over around emojis can be stripped and whitespace can be collapsed and trimmed.
+ * <p>
+ * Orphaned modifiers are variation selectors (U+FE0E, U+FE0F) and Fitzpatrick modifiers which are not part
+ * of a matched emoji as well as zero width joiners (U+200D) next to an emoji or another orphaned modifier.
+ * Zero width joiners between regular characters are kept since several scripts depend on them.
+ * <p>
+ * The output is only copied into a buffer once it starts to differ from the input, so unchanged texts are
+ * returned as they are.
+ */
+final class EmojiSanitizer {
+
+    private static final char ZERO_WIDTH_JOINER = '\u200D';
+    private static final char TEXT_VARIATION_SELECTOR = '\uFE0E';
+    private static final char EMOJI_VARIATION_SELECTOR = '\uFE0F';
+
+    private final EmojiScanner scanner;
+    private final String replacement;
+    private final boolean stripOrphanedModifiers;
+    private final boolean collapseWhitespace;
+    //a blank replacement is treated like whitespace of the text so that it can be collapsed as well
+    private final boolean whitespaceReplacement;
+
+    EmojiSanitizer(EmojiScanner scanner, String replacement, boolean stripOrphanedModifiers, boolean collapseWhitespace) {
+        this.scanner = scanner;
+        this.replacement = Objects.requireNonNull(replacement);
+        this.stripOrphanedModifiers = stripOrphanedModifiers;
+        this.collapseWhitespace = collapseWhitespace;
+        this.whitespaceReplacement = collapseWhitespace && !replacement.isEmpty() && replacement.isBlank();
+    }
+
+    boolean isConfiguredWith(String replacement, boolean stripOrphanedModifiers, boolean collapseWhitespace) {
+        return this.replacement.equals(replacement)
+                && this.stripOrphanedModifiers == stripOrphanedModifiers
+                && this.collapseWhitespace == collapseWhitespace;
+    }
+
+    String sanitize(String text) {
+        var out = new Output(text);
+        int length = text.length();
+        //end of the last emoji or stripped modifier which decides whether a zero width joiner is orphaned
+        int droppedUpTo = -1;
+        long m = scanner.next(text, 0);
+        int i = 0;
+        while(i < length) {
+            if(m != EmojiScanner.NO_MATCH && EmojiScanner.start(m) == i) {
+                if(whitespaceReplacement) {
+                    out.whitespace(Output.NO_INDEX);
+                } else if(!replacement.isEmpty()) {
+                    out.append(replacement);
+                }
+                i = scanner.end(m);
+                droppedUpTo = i;
+                m = scanner.next(text, i);
+                continue;
+            }
+            char c = text.charAt(i);
+            if(stripOrphanedModifiers) {
+                int modifierLength = modifierLength(text, i);
+                if(modifierLength == 0 && c == ZERO_WIDTH_JOINER
+                        && (droppedUpTo == i || isEmojiOrModifierAt(text, i + 1, m))) {
+                    modifierLength = 1;
+                }
+                if(modifierLength > 0) {
+                    i += modifierLength;
+                    droppedUpTo = i;
+                    continue;
+                }
+            }
+            if(collapseWhitespace && Character.isWhitespace(c)) {
+                out.whitespace(i);
+            } else {
+                out.keep(i);
+            }
+            i++;
+        }
+        return out.toString();
+    }
+
+    private boolean isEmojiOrModifierAt(String text, int index, long nextMatch) {
+        return (nextMatch != EmojiScanner.NO_MATCH && EmojiScanner.start(nextMatch) == index)
+                || modifierLength(text, index) > 0;
+    }
+
+    private static int modifierLength(String text, int index) {
+        if(index >= text.length()) {
+            return 0;
+        }
+        char c = text.charAt(index);
+        if(c == TEXT_VARIATION_SELECTOR || c == EMOJI_VARIATION_SELECTOR) {
+            return 1;
+        }
+        return EmojiTable.fitzpatrickAt(text, index) != EmojiTable.NO_FITZPATRICK ? 2 : 0;
+    }
+
+    /**
+     * Output which stays a prefix of the input text as long as possible and only gets copied into
+     * a buffer at the first difference.
+     */
+    private static final class Output {
+
+        static final int NO_INDEX = -2;
+
+        private static final int NO_WHITESPACE = -1;
+
+        private final String text;
+        private StringBuilder buffer;
+        //while there is no buffer the output is text[0, mark)
+        private int mark;
+        private int pendingWhitespace = NO_WHITESPACE;
+
+        Output(String text) {
+            this.text = text;
+        }
+
+        void keep(int index) {
+            flushWhitespace(index);
+            if(buffer == null) {
+                if(index == mark) {
+                    mark++;
+                    return;
+                }
+                copy();
+            }
+            buffer.append(text.charAt(index));
+        }
+
+        void append(String s) {
+            flushWhitespace(NO_INDEX);
+            if(buffer == null) {
+                copy();
+            }
+            buffer.append(s);
+        }
+
+        /**
+         * Records whitespace which gets emitted as a single space before the next kept content only,
+         * which trims leading and trailing whitespace and collapses runs of it.
+         */
+        void whitespace(int index) {
+            if(pendingWhitespace == NO_WHITESPACE) {
+                pendingWhitespace = index;
+            }
+        }
+
+        private void flushWhitespace(int nextIndex) {
+            if(pendingWhitespace == NO_WHITESPACE) {
+                return;
+            }
+            int whitespace = pendingWhitespace;
+            pendingWhitespace = NO_WHITESPACE;
+            if(buffer == null) {
+                if(mark == 0) {
+                    return;
+                }
+                if(whitespace == mark && nextIndex == mark + 1 && text.charAt(mark) == ' ') {
+                    mark++;
+                    return;
+                }
+                copy();
+            } else if(buffer.length() == 0) {
+                return;
+            }
+            buffer.append(' ');
+        }
+
+        private void copy() {
+            buffer = new StringBuilder(text.length());
+            buffer.append(text, 0, mark);
+        }
+
+        @Override
+        public String toString() {
+            if(buffer != null) {
+                return buffer.toString();
+            }
+            return mark == text.length() ? text : text.substring(0, mark);
+        }
+
+    }
+
+}
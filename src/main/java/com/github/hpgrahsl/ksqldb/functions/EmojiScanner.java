@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Arrays;
+
+/**
+ * Single pass emoji scanner on top of an {@link EmojiTable}. Matching follows the semantics of
+ * emoji-java's EmojiParser: longest match at each position and a directly following Fitzpatrick
+ * modifier is always consumed as part of the occurrence.
+ * <p>
+ * Matches are reported as packed primitive values to keep the scan loop free of allocations.
+ */
+final class EmojiScanner {
+
+    static final long NO_MATCH = -1L;
+
+    private static final int[] NO_VARIANTS = new int[0];
+
+    private static final EmojiScanner DEFAULT = new EmojiScanner(EmojiTable.getDefault());
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[64]);
+
+    private final EmojiTable table;
+    private final ThreadLocal<VariantSet> seen;
+    //index of the distinct emoji per variant key, only valid for variant keys contained in seen
+    private final ThreadLocal<int[]> distinctIndices;
+    private final EmojiSequence empty;
+    private final EmojiTally emptyTally;
+
+    EmojiScanner(EmojiTable table) {
+        this.table = table;
+        this.seen = ThreadLocal.withInitial(() -> new VariantSet(table));
+        this.distinctIndices = ThreadLocal.withInitial(() -> new int[table.size() * (EmojiTable.FITZPATRICK_TYPES + 1)]);
+        this.empty = new EmojiSequence(table, NO_VARIANTS);
+        this.emptyTally = new EmojiTally(empty, empty, NO_VARIANTS, NO_VARIANTS);
+    }
+
+    static EmojiScanner getDefault() {
+        return DEFAULT;
+    }
+
+    EmojiTable table() {
+        return table;
+    }
+
+    /**
+     * Returns the next emoji occurrence at or after the given index or {@link #NO_MATCH}.
+     */
+    long next(String text, int from) {
+        int length = text.length();
+        for(int i = table.nextCandidate(text, from); i < length; i = table.nextCandidate(text, i + 1)) {
+            int id = table.matchAt(text, i);
+            if(id != EmojiTable.NO_EMOJI) {
+                return pack(i, id, EmojiTable.fitzpatrickAt(text, i + table.length(id)));
+            }
+        }
+        return NO_MATCH;
+    }
+
+    static int start(long match) {
+        return (int) (match >>> 32);
+    }
+
+    static int emojiId(long match) {
+        return (int) (match & 0xFFFFFF);
+    }
+
+    static int fitzpatrick(long match) {
+        return (int) ((match >>> 24) & 0xFF) - 1;
+    }
+
+    /**
+     * Returns the index right after the occurrence including a consumed Fitzpatrick modifier.
+     */
+    int end(long match) {
+        return start(match) + table.length(emojiId(match))
+                + (fitzpatrick(match) != EmojiTable.NO_FITZPATRICK ? 2 : 0);
+    }
+
+    /**
+     * Returns the canonical string of the occurrence as emoji-java would extract it.
+     */
+    String emoji(long match) {
+        return table.unicode(emojiId(match), fitzpatrick(match));
+    }
+
+    /**
+     * Returns a dense key which is equal for two occurrences iff their {@link #emoji(long)} strings are equal.
+     */
+    int variant(long match) {
+        int id = emojiId(match);
+        return variant(id, table.supportsFitzpatrick(id) ? fitzpatrick(match) : EmojiTable.NO_FITZPATRICK);
+    }
+
+    static int variant(int emojiId, int fitzpatrick) {
+        return emojiId * (EmojiTable.FITZPATRICK_TYPES + 1) + fitzpatrick + 1;
+    }
+
+    boolean contains(String text) {
+        return next(text, 0) != NO_MATCH;
+    }
+
+    int count(String text) {
+        int count = 0;
+        for(long m = next(text, 0); m != NO_MATCH; m = next(text, end(m))) {
+            count++;
+        }
+        return count;
+    }
+
+    int countUnique(String text) {
+        return countUnique(text, null);
+    }
+
+    /**
+     * Counts distinct occurrences by recording variant keys into a reusable per-thread set,
+     * so that no strings or sets are created. Occurrences are normalized first if a normalizer is given.
+     */
+    int countUnique(String text, EmojiNormalizer normalizer) {
+        long m = next(text, 0);
+        if(m == NO_MATCH) {
+            return 0;
+        }
+        var unique = seen.get();
+        unique.clear();
+        int count = 0;
+        for(; m != NO_MATCH; m = next(text, end(m))) {
+            if(unique.add(normalizer == null ? variant(m) : normalizer.variant(m))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    EmojiSequence extract(String text, boolean unique) {
+        return extract(text, unique, null);
+    }
+
+    /**
+     * Extracts the emojis in order of occurrence into a sequence of variant keys. The keys are collected
+     * in a per-thread buffer so that the only allocations are the exactly sized key array and the sequence.
+     * Occurrences are normalized first if a normalizer is given.
+     */
+    EmojiSequence extract(String text, boolean unique, EmojiNormalizer normalizer) {
+        long m = next(text, 0);
+        if(m == NO_MATCH) {
+            return empty;
+        }
+        var variants = SCRATCH.get();
+        var distinct = seen.get();
+        distinct.clear();
+        int size = 0;
+        for(; m != NO_MATCH; m = next(text, end(m))) {
+            int variant = normalizer == null ? variant(m) : normalizer.variant(m);
+            if(unique && !distinct.add(variant)) {
+                continue;
+            }
+            if(size == variants.length) {
+                variants = Arrays.copyOf(variants, size * 2);
+                SCRATCH.set(variants);
+            }
+            variants[size++] = variant;
+        }
+        return new EmojiSequence(table, Arrays.copyOf(variants, size));
+    }
+
+    /**
+     * Tallies all occurrences and the distinct emojis of the text in a single pass. Variant keys of all occurrences
+     * are collected in the per-thread buffer and distinct ones are looked up by means of the per-thread set,
+     * so that neither strings nor maps are created. Occurrences are normalized first if a normalizer is given.
+     */
+    EmojiTally tally(String text, EmojiNormalizer normalizer) {
+        long m = next(text, 0);
+        if(m == NO_MATCH) {
+            return emptyTally;
+        }
+        var variants = SCRATCH.get();
+        var distinct = seen.get();
+        var indices = distinctIndices.get();
+        distinct.clear();
+        var distinctVariants = new int[8];
+        var counts = new int[8];
+        var firstOffsets = new int[8];
+        int size = 0;
+        int distinctSize = 0;
+        for(; m != NO_MATCH; m = next(text, end(m))) {
+            int variant = normalizer == null ? variant(m) : normalizer.variant(m);
+            if(size == variants.length) {
+                variants = Arrays.copyOf(variants, size * 2);
+                SCRATCH.set(variants);
+            }
+            variants[size++] = variant;
+            if(!distinct.add(variant)) {
+                counts[indices[variant]]++;
+                continue;
+            }
+            if(distinctSize == distinctVariants.length) {
+                distinctVariants = Arrays.copyOf(distinctVariants, distinctSize * 2);
+                counts = Arrays.copyOf(counts, distinctSize * 2);
+                firstOffsets = Arrays.copyOf(firstOffsets, distinctSize * 2);
+            }
+            indices[variant] = distinctSize;
+            distinctVariants[distinctSize] = variant;
+            counts[distinctSize] = 1;
+            firstOffsets[distinctSize] = start(m);
+            distinctSize++;
+        }
+        return new EmojiTally(
+                new EmojiSequence(table, Arrays.copyOf(variants, size)),
+                new EmojiSequence(table, Arrays.copyOf(distinctVariants, distinctSize)),
+                Arrays.copyOf(counts, distinctSize),
+                Arrays.copyOf(firstOffsets, distinctSize));
+    }
+
+    /**
+     * Rebuilds the text in a single pass by letting the rewriter emit the replacement of every occurrence.
+     */
+    String rewrite(String text, Rewriter rewriter) {
+        long m = next(text, 0);
+        if(m == NO_MATCH) {
+            return text;
+        }
+        var sb = new StringBuilder(text.length());
+        int prev = 0;
+        for(; m != NO_MATCH; m = next(text, prev)) {
+            sb.append(text, prev, start(m));
+            rewriter.append(sb, m);
+            prev = end(m);
+        }
+        return sb.append(text, prev, text.length()).toString();
+    }
+
+    String remove(String text) {
+        return rewrite(text, (sb, m) -> {});
+    }
+
+    private static long pack(int start, int id, int fitzpatrick) {
+        return ((long) start << 32) | ((long) (fitzpatrick + 1) << 24) | id;
+    }
+
+    @FunctionalInterface
+    interface Rewriter {
+        void append(StringBuilder sb, long match);
+    }
+
+}
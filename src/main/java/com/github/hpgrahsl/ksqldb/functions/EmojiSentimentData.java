@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Per-emoji sentiment scores of the Emoji Sentiment Ranking (Kralj Novak, Smailović, Sluban, Mozetič: Sentiment
+ * of Emojis, PLoS ONE 10(12), 2015), which is published under CC BY-SA 4.0 as {@code Emoji_Sentiment_Data_v1.0.csv}
+ * and expected unmodified as class path resource {@value #RESOURCE} next to this class.
+ * <p>
+ * The score of an emoji is the one defined in the paper, i.e. the difference of the Laplace estimates of its
+ * positive and negative probabilities {@code (positive + 1) / (occurrences + 3) - (negative + 1) / (occurrences + 3)},
+ * which lies in (-1, 1).
+ */
+final class EmojiSentimentData {
+
+    static final String RESOURCE = "sentiment/Emoji_Sentiment_Data_v1.0.csv";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmojiSentimentData.class);
+
+    //columns: Emoji,Unicode codepoint,Occurrences,Position,Negative,Neutral,Positive,Unicode name,Unicode block
+    private static final int CODEPOINT = 1;
+    private static final int OCCURRENCES = 2;
+    private static final int NEGATIVE = 4;
+    private static final int POSITIVE = 6;
+    private static final int COLUMNS = 7;
+
+    private final Map<String, Double> scores;
+
+    private EmojiSentimentData(Map<String, Double> scores) {
+        this.scores = Collections.unmodifiableMap(scores);
+    }
+
+    /**
+     * Loads the sentiment data from the class path, or returns {@code null} if it is not part of the jar.
+     */
+    static EmojiSentimentData loadDefault() {
+        var in = EmojiSentimentData.class.getResourceAsStream(RESOURCE);
+        if(in == null) {
+            LOGGER.warn("missing emoji sentiment data resource "+RESOURCE+", emoji sentiment scores are unknown");
+            return null;
+        }
+        try(var reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch(IOException | IllegalArgumentException exc) {
+            LOGGER.error("could not load emoji sentiment data resource "+RESOURCE+", emoji sentiment scores are unknown", exc);
+            return null;
+        }
+    }
+
+    static EmojiSentimentData parse(Reader reader) throws IOException {
+        var scores = new LinkedHashMap<String, Double>();
+        var lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        for(String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            if(lineNumber == 1 || line.isBlank()) {
+                continue;
+            }
+            //names may contain commas but follow the needed columns
+            var columns = line.split(",", COLUMNS + 1);
+            if(columns.length <= POSITIVE) {
+                throw new IllegalArgumentException("invalid emoji sentiment data in line " + lineNumber + ": " + line);
+            }
+            try {
+                var codepoint = columns[CODEPOINT].trim();
+                var emoji = new StringBuilder().appendCodePoint(Integer.decode(codepoint)).toString();
+                scores.put(emoji, score(Integer.parseInt(columns[OCCURRENCES].trim()),
+                        Integer.parseInt(columns[NEGATIVE].trim()), Integer.parseInt(columns[POSITIVE].trim())));
+            } catch(NumberFormatException exc) {
+                throw new IllegalArgumentException("invalid emoji sentiment data in line " + lineNumber + ": " + line, exc);
+            }
+        }
+        return new EmojiSentimentData(scores);
+    }
+
+    static double score(int occurrences, int negative, int positive) {
+        return (double) (positive - negative) / (occurrences + 3);
+    }
+
+    /**
+     * Returns the score per emoji, emojis consist of a single codepoint without variation selector.
+     */
+    Map<String, Double> scores() {
+        return scores;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Immutable ordered sequence of extracted emojis which is stored as an array of dense variant keys
+ * (see {@link EmojiScanner#variant(int, int)}). Elements resolve to the shared canonical strings of the
+ * {@link EmojiTable}, hence extracting emojis does not create any strings no matter how often an emoji occurs.
+ */
+final class EmojiSequence extends AbstractList<String> implements RandomAccess {
+
+    private static final int VARIANTS_PER_EMOJI = EmojiTable.FITZPATRICK_TYPES + 1;
+
+    private final EmojiTable table;
+    private final int[] variants;
+
+    EmojiSequence(EmojiTable table, int[] variants) {
+        this.table = table;
+        this.variants = variants;
+    }
+
+    int variant(int index) {
+        return variants[index];
+    }
+
+    int emojiId(int index) {
+        return variants[index] / VARIANTS_PER_EMOJI;
+    }
+
+    int fitzpatrick(int index) {
+        return variants[index] % VARIANTS_PER_EMOJI - 1;
+    }
+
+    @Override
+    public String get(int index) {
+        return table.unicode(emojiId(index), fitzpatrick(index));
+    }
+
+    @Override
+    public int size() {
+        return variants.length;
+    }
+
+}
@@ -0,0 +1,591 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable, array-backed view of an emoji data set, i.e. by default the one of emoji-java or the
+ * Unicode emoji data selected via {@link UnicodeEmojiData}. Every emoji is addressed by a dense id
+ * and all emoji unicode sequences are compiled into a codepoint trie which is stored in flat arrays.
+ * <p>
+ * The table is kept compact since it exists once per class loader: unicode sequences are flat codepoint
+ * arrays, aliases and names share one char pool, tags are deduplicated and HTML codepoints are derived
+ * on demand. Canonical unicode strings are only created for emojis which actually occur.
+ */
+final class EmojiTable {
+
+    static final int NO_EMOJI = -1;
+    static final int NO_FITZPATRICK = -1;
+    static final int FITZPATRICK_TYPES = 5;
+
+    private static final char FITZPATRICK_HIGH_SURROGATE = '\uD83C';
+    private static final char FITZPATRICK_FIRST_LOW_SURROGATE = '\uDFFB';
+
+    private static final String[] FITZPATRICK_UNICODES = {
+            "\uD83C\uDFFB", "\uD83C\uDFFC", "\uD83C\uDFFD", "\uD83C\uDFFE", "\uD83C\uDFFF"
+    };
+
+    private static final String[] FITZPATRICK_NAMES = {
+            "type_1_2", "type_3", "type_4", "type_5", "type_6"
+    };
+
+    static final String INDEX_RESOURCE = "emoji-index.bin";
+
+    private static final int INDEX_MAGIC = 0x454D4A49;
+    private static final int INDEX_FORMAT_VERSION = 3;
+    private static final int START_CHARS_WORDS = 1 << 10;
+
+
+    private static final EmojiTable DEFAULT = loadDefault();
+
+    //unicode sequence of emoji id i is codepoints[codepointOffsets[i], codepointOffsets[i+1])
+    private final int[] codepointOffsets;
+    private final int[] codepoints;
+    //UTF-16 lengths which are needed for every match
+    private final byte[] lengths;
+    private final boolean[] supportsFitzpatrick;
+
+    //aliases of emoji id i are [aliasRanges[i], aliasRanges[i+1]), alias a is chars[aliasOffsets[a], aliasOffsets[a+1])
+    //and the name of emoji id i is chars[nameOffsets[i], nameOffsets[i+1])
+    private final char[] chars;
+    private final int[] aliasRanges;
+    private final int[] aliasOffsets;
+    private final int[] nameOffsets;
+
+    //distinct tags, the tags of emoji id i are referenced by tagRefs[tagOffsets[i], tagOffsets[i+1])
+    private final String[] tags;
+    private final int[] tagOffsets;
+    private final int[] tagRefs;
+
+    //canonical strings are created on first use, racing threads may create equal strings once
+    private final String[] unicodes;
+    private final String[] fitzpatrickVariants;
+
+    //bitmap over all UTF-16 chars which may start an emoji, every other char is skipped without a trie lookup
+    private final long[] startChars;
+
+    //trie in compressed sparse row layout: edges of node n are [edgeOffsets[n], edgeOffsets[n+1])
+    private final int[] edgeOffsets;
+    private final int[] edgeCodepoints;
+    private final int[] edgeTargets;
+    private final int[] nodeEmojiIds;
+
+    //direct lookup of the root's children, i.e. of the first codepoint of every emoji, in 256 codepoint pages
+    private final int[] rootPages;
+    private final int[] rootTargets;
+
+    private EmojiTable(int[] codepointOffsets, int[] codepoints, boolean[] supportsFitzpatrick,
+                       char[] chars, int[] aliasRanges, int[] aliasOffsets, int[] nameOffsets,
+                       String[] tags, int[] tagOffsets, int[] tagRefs, long[] startChars,
+                       int[] edgeOffsets, int[] edgeCodepoints, int[] edgeTargets, int[] nodeEmojiIds) {
+        int size = supportsFitzpatrick.length;
+        this.codepointOffsets = codepointOffsets;
+        this.codepoints = codepoints;
+        this.supportsFitzpatrick = supportsFitzpatrick;
+        this.chars = chars;
+        this.aliasRanges = aliasRanges;
+        this.aliasOffsets = aliasOffsets;
+        this.nameOffsets = nameOffsets;
+        this.tags = tags;
+        this.tagOffsets = tagOffsets;
+        this.tagRefs = tagRefs;
+        this.startChars = startChars;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeCodepoints = edgeCodepoints;
+        this.edgeTargets = edgeTargets;
+        this.nodeEmojiIds = nodeEmojiIds;
+        this.lengths = new byte[size];
+        for(int id = 0; id < size; id++) {
+            int length = 0;
+            for(int i = codepointOffsets[id]; i < codepointOffsets[id + 1]; i++) {
+                length += Character.charCount(codepoints[i]);
+            }
+            lengths[id] = (byte) length;
+        }
+        this.unicodes = new String[size];
+        this.fitzpatrickVariants = new String[size * FITZPATRICK_TYPES];
+        int maxPage = 0;
+        for(int e = edgeOffsets[0]; e < edgeOffsets[1]; e++) {
+            maxPage = Math.max(maxPage, edgeCodepoints[e] >>> 8);
+        }
+        this.rootPages = new int[maxPage + 1];
+        Arrays.fill(rootPages, -1);
+        int pages = 0;
+        for(int e = edgeOffsets[0]; e < edgeOffsets[1]; e++) {
+            int page = edgeCodepoints[e] >>> 8;
+            if(rootPages[page] < 0) {
+                rootPages[page] = pages++;
+            }
+        }
+        this.rootTargets = new int[pages << 8];
+        Arrays.fill(rootTargets, -1);
+        for(int e = edgeOffsets[0]; e < edgeOffsets[1]; e++) {
+            rootTargets[(rootPages[edgeCodepoints[e] >>> 8] << 8) | (edgeCodepoints[e] & 0xFF)] = edgeTargets[e];
+        }
+    }
+
+    static EmojiTable getDefault() {
+        return DEFAULT;
+    }
+
+    static EmojiTable of(Iterable<Emoji> emojis) {
+        var list = new ArrayList<Emoji>();
+        emojis.forEach(list::add);
+        int size = list.size();
+        var unicodes = new String[size];
+        var supportsFitzpatrick = new boolean[size];
+        var aliases = new ArrayList<List<String>>(size);
+        var names = new String[size];
+        var tags = new ArrayList<List<String>>(size);
+        for(int id = 0; id < size; id++) {
+            var emoji = list.get(id);
+            unicodes[id] = emoji.getUnicode();
+            supportsFitzpatrick[id] = emoji.supportsFitzpatrick();
+            aliases.add(emoji.getAliases());
+            names[id] = emoji.getDescription() != null ? emoji.getDescription() : "";
+            tags.add(emoji.getTags());
+        }
+        return of(unicodes, supportsFitzpatrick, aliases, names, tags);
+    }
+
+    /**
+     * Builds a table from parallel arrays and lists which are indexed by emoji id. Every emoji needs at least
+     * one alias, the first one is its primary alias.
+     */
+    static EmojiTable of(String[] unicodes, boolean[] supportsFitzpatrick, List<List<String>> aliases,
+                         String[] names, List<List<String>> tags) {
+        int size = unicodes.length;
+        var startChars = new long[START_CHARS_WORDS];
+
+        var codepointOffsets = new int[size + 1];
+        var codepoints = new int[Arrays.stream(unicodes).mapToInt(u -> u.codePointCount(0, u.length())).sum()];
+        var root = new TrieNode();
+        int nodeCount = 1;
+        int next = 0;
+        for(int id = 0; id < size; id++) {
+            char first = unicodes[id].charAt(0);
+            startChars[first >>> 6] |= 1L << first;
+            codepointOffsets[id] = next;
+            var node = root;
+            for(int i = 0; i < unicodes[id].length(); ) {
+                int cp = unicodes[id].codePointAt(i);
+                codepoints[next++] = cp;
+                var child = node.children.get(cp);
+                if(child == null) {
+                    child = new TrieNode();
+                    node.children.put(cp, child);
+                    nodeCount++;
+                }
+                node = child;
+                i += Character.charCount(cp);
+            }
+            node.emojiId = id;
+        }
+        codepointOffsets[size] = next;
+
+        var pool = new StringBuilder();
+        var aliasRanges = new int[size + 1];
+        var aliasOffsets = new int[aliases.stream().mapToInt(List::size).sum() + 1];
+        var nameOffsets = new int[size + 1];
+        next = 0;
+        for(int id = 0; id < size; id++) {
+            aliasRanges[id] = next;
+            for(String alias : aliases.get(id)) {
+                aliasOffsets[next++] = pool.length();
+                pool.append(alias);
+            }
+        }
+        aliasRanges[size] = next;
+        aliasOffsets[next] = pool.length();
+        for(int id = 0; id < size; id++) {
+            nameOffsets[id] = pool.length();
+            pool.append(names[id]);
+        }
+        nameOffsets[size] = pool.length();
+
+        var tagIndex = new HashMap<String, Integer>();
+        var distinctTags = new ArrayList<String>();
+        var tagOffsets = new int[size + 1];
+        var tagRefs = new int[tags.stream().mapToInt(List::size).sum()];
+        next = 0;
+        for(int id = 0; id < size; id++) {
+            tagOffsets[id] = next;
+            for(String tag : tags.get(id)) {
+                tagRefs[next++] = tagIndex.computeIfAbsent(tag, t -> {
+                    distinctTags.add(t);
+                    return distinctTags.size() - 1;
+                });
+            }
+        }
+        tagOffsets[size] = next;
+
+        var edgeOffsets = new int[nodeCount + 1];
+        var edgeCodepoints = new int[nodeCount - 1];
+        var edgeTargets = new int[nodeCount - 1];
+        var nodeEmojiIds = new int[nodeCount];
+
+        //breadth first numbering so that all children of a node occupy consecutive edge slots
+        var queue = new ArrayDeque<TrieNode>();
+        root.index = 0;
+        queue.add(root);
+        int nextIndex = 1;
+        int edge = 0;
+        while(!queue.isEmpty()) {
+            var node = queue.poll();
+            nodeEmojiIds[node.index] = node.emojiId;
+            edgeOffsets[node.index] = edge;
+            for(Map.Entry<Integer, TrieNode> e : node.children.entrySet()) {
+                var child = e.getValue();
+                child.index = nextIndex++;
+                edgeCodepoints[edge] = e.getKey();
+                edgeTargets[edge] = child.index;
+                edge++;
+                queue.add(child);
+            }
+        }
+        edgeOffsets[nodeCount] = edge;
+
+        return new EmojiTable(codepointOffsets, codepoints, supportsFitzpatrick,
+                pool.toString().toCharArray(), aliasRanges, aliasOffsets, nameOffsets,
+                distinctTags.toArray(new String[0]), tagOffsets, tagRefs,
+                startChars, edgeOffsets, edgeCodepoints, edgeTargets, nodeEmojiIds);
+    }
+
+    /**
+     * Reads a table from the binary index format written by {@link #writeTo(OutputStream)}.
+     */
+    static EmojiTable readFrom(InputStream in) throws IOException {
+        //a single bulk read, the index is parsed from memory afterwards
+        var data = new DataInputStream(new ByteArrayInputStream(in.readAllBytes()));
+        if(data.readInt() != INDEX_MAGIC || data.readInt() != INDEX_FORMAT_VERSION) {
+            throw new IOException("unsupported emoji index format");
+        }
+        var codepointOffsets = readInts(data);
+        var codepoints = readInts(data);
+        var supportsFitzpatrick = new boolean[codepointOffsets.length - 1];
+        for(int id = 0; id < supportsFitzpatrick.length; id++) {
+            supportsFitzpatrick[id] = data.readBoolean();
+        }
+        var chars = new char[data.readInt()];
+        for(int i = 0; i < chars.length; i++) {
+            chars[i] = data.readChar();
+        }
+        var aliasRanges = readInts(data);
+        var aliasOffsets = readInts(data);
+        var nameOffsets = readInts(data);
+        var tags = new String[data.readInt()];
+        for(int i = 0; i < tags.length; i++) {
+            tags[i] = data.readUTF();
+        }
+        var tagOffsets = readInts(data);
+        var tagRefs = readInts(data);
+        var startChars = new long[START_CHARS_WORDS];
+        for(int i = 0; i < startChars.length; i++) {
+            startChars[i] = data.readLong();
+        }
+        return new EmojiTable(codepointOffsets, codepoints, supportsFitzpatrick, chars, aliasRanges, aliasOffsets, nameOffsets,
+                tags, tagOffsets, tagRefs, startChars, readInts(data), readInts(data), readInts(data), readInts(data));
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        var data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(INDEX_MAGIC);
+        data.writeInt(INDEX_FORMAT_VERSION);
+        writeInts(data, codepointOffsets);
+        writeInts(data, codepoints);
+        for(boolean supports : supportsFitzpatrick) {
+            data.writeBoolean(supports);
+        }
+        data.writeInt(chars.length);
+        for(char c : chars) {
+            data.writeChar(c);
+        }
+        writeInts(data, aliasRanges);
+        writeInts(data, aliasOffsets);
+        writeInts(data, nameOffsets);
+        data.writeInt(tags.length);
+        for(String tag : tags) {
+            data.writeUTF(tag);
+        }
+        writeInts(data, tagOffsets);
+        writeInts(data, tagRefs);
+        for(long word : startChars) {
+            data.writeLong(word);
+        }
+        writeInts(data, edgeOffsets);
+        writeInts(data, edgeCodepoints);
+        writeInts(data, edgeTargets);
+        writeInts(data, nodeEmojiIds);
+        data.flush();
+    }
+
+    /**
+     * Loads the index which is generated into the jar at build time, so that neither emoji-java's json
+     * data has to be parsed nor the trie has to be built. Falls back to emoji-java if it is missing.
+     */
+    private static EmojiTable loadDefault() {
+        var data = UnicodeEmojiData.configured();
+        if(data != null) {
+            return data.toTable();
+        }
+        try(var in = EmojiTable.class.getResourceAsStream(INDEX_RESOURCE)) {
+            if(in != null) {
+                return readFrom(in);
+            }
+        } catch(IOException exc) {
+            //fall through and build the table from emoji-java
+        }
+        return of(EmojiManager.getAll());
+    }
+
+    private static int[] readInts(DataInputStream data) throws IOException {
+        var values = new int[data.readInt()];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = data.readInt();
+        }
+        return values;
+    }
+
+    private static void writeInts(DataOutputStream data, int[] values) throws IOException {
+        data.writeInt(values.length);
+        for(int value : values) {
+            data.writeInt(value);
+        }
+    }
+
+    int size() {
+        return lengths.length;
+    }
+
+    boolean mayStartEmoji(char c) {
+        return (startChars[c >>> 6] & (1L << c)) != 0;
+    }
+
+    /**
+     * Returns the index of the next char at or after the given index which may start an emoji or the
+     * length of the text. This is the hot loop for text without emojis, so it only touches the bitmap.
+     */
+    int nextCandidate(String text, int from) {
+        long[] bits = startChars;
+        int length = text.length();
+        for(int i = from; i < length; i++) {
+            char c = text.charAt(i);
+            if((bits[c >>> 6] & (1L << c)) != 0) {
+                return i;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Returns the id of the longest emoji starting at the given index or {@link #NO_EMOJI}.
+     */
+    int matchAt(String text, int index) {
+        int length = text.length();
+        int cp = text.codePointAt(index);
+        int node = rootChild(cp);
+        if(node < 0) {
+            return NO_EMOJI;
+        }
+        int best = nodeEmojiIds[node];
+        int i = index + Character.charCount(cp);
+        while(i < length) {
+            cp = text.codePointAt(i);
+            node = child(node, cp);
+            if(node < 0) {
+                break;
+            }
+            i += Character.charCount(cp);
+            if(nodeEmojiIds[node] != NO_EMOJI) {
+                best = nodeEmojiIds[node];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the id of the emoji whose unicode is exactly the given string or {@link #NO_EMOJI}.
+     */
+    int idOf(String unicode) {
+        if(unicode == null || unicode.isEmpty()) {
+            return NO_EMOJI;
+        }
+        int id = matchAt(unicode, 0);
+        return id != NO_EMOJI && lengths[id] == unicode.length() ? id : NO_EMOJI;
+    }
+
+    /**
+     * Returns the canonical string of the emoji's unicode.
+     */
+    String unicode(int id) {
+        var unicode = unicodes[id];
+        if(unicode == null) {
+            unicode = new String(codepoints, codepointOffsets[id], codepointOffsets[id + 1] - codepointOffsets[id]);
+            unicodes[id] = unicode;
+        }
+        return unicode;
+    }
+
+    /**
+     * Returns the canonical string of the unicode of the emoji including the Fitzpatrick modifier if the emoji supports it.
+     */
+    String unicode(int id, int fitzpatrick) {
+        if(fitzpatrick == NO_FITZPATRICK || !supportsFitzpatrick[id]) {
+            return unicode(id);
+        }
+        var variant = fitzpatrickVariants[id * FITZPATRICK_TYPES + fitzpatrick];
+        if(variant == null) {
+            variant = unicode(id) + FITZPATRICK_UNICODES[fitzpatrick];
+            fitzpatrickVariants[id * FITZPATRICK_TYPES + fitzpatrick] = variant;
+        }
+        return variant;
+    }
+
+    /**
+     * Appends the unicode just like {@link #unicode(int, int)} returns it without creating the canonical string.
+     */
+    void appendUnicode(StringBuilder sb, int id, int fitzpatrick) {
+        for(int i = codepointOffsets[id]; i < codepointOffsets[id + 1]; i++) {
+            sb.appendCodePoint(codepoints[i]);
+        }
+        if(fitzpatrick != NO_FITZPATRICK && supportsFitzpatrick[id]) {
+            sb.append(FITZPATRICK_UNICODES[fitzpatrick]);
+        }
+    }
+
+    int length(int id) {
+        return lengths[id];
+    }
+
+    int codepointCount(int id) {
+        return codepointOffsets[id + 1] - codepointOffsets[id];
+    }
+
+    int codepointAt(int id, int index) {
+        return codepoints[codepointOffsets[id] + index];
+    }
+
+    boolean supportsFitzpatrick(int id) {
+        return supportsFitzpatrick[id];
+    }
+
+    /**
+     * Returns the primary alias of the emoji.
+     */
+    String alias(int id) {
+        return alias(id, 0);
+    }
+
+    int aliasCount(int id) {
+        return aliasRanges[id + 1] - aliasRanges[id];
+    }
+
+    String alias(int id, int index) {
+        int alias = aliasRanges[id] + index;
+        return new String(chars, aliasOffsets[alias], aliasOffsets[alias + 1] - aliasOffsets[alias]);
+    }
+
+    String name(int id) {
+        return new String(chars, nameOffsets[id], nameOffsets[id + 1] - nameOffsets[id]);
+    }
+
+    String htmlDecimal(int id) {
+        var sb = new StringBuilder();
+        for(int i = codepointOffsets[id]; i < codepointOffsets[id + 1]; i++) {
+            sb.append("&#").append(codepoints[i]).append(';');
+        }
+        return sb.toString();
+    }
+
+    String htmlHexadecimal(int id) {
+        var sb = new StringBuilder();
+        for(int i = codepointOffsets[id]; i < codepointOffsets[id + 1]; i++) {
+            sb.append("&#x").append(Integer.toHexString(codepoints[i])).append(';');
+        }
+        return sb.toString();
+    }
+
+    int tagCount(int id) {
+        return tagOffsets[id + 1] - tagOffsets[id];
+    }
+
+    String tag(int id, int index) {
+        return tags[tagRefs[tagOffsets[id] + index]];
+    }
+
+    List<String> tags(int id) {
+        var emojiTags = new String[tagCount(id)];
+        for(int i = 0; i < emojiTags.length; i++) {
+            emojiTags[i] = tag(id, i);
+        }
+        return Collections.unmodifiableList(Arrays.asList(emojiTags));
+    }
+
+    /**
+     * Returns the type index of the Fitzpatrick modifier at the given index or {@link #NO_FITZPATRICK}.
+     */
+    static int fitzpatrickAt(String text, int index) {
+        if(index + 2 > text.length() || text.charAt(index) != FITZPATRICK_HIGH_SURROGATE) {
+            return NO_FITZPATRICK;
+        }
+        int type = text.charAt(index + 1) - FITZPATRICK_FIRST_LOW_SURROGATE;
+        return type >= 0 && type < FITZPATRICK_TYPES ? type : NO_FITZPATRICK;
+    }
+
+    static String fitzpatrickUnicode(int fitzpatrick) {
+        return FITZPATRICK_UNICODES[fitzpatrick];
+    }
+
+    static String fitzpatrickName(int fitzpatrick) {
+        return FITZPATRICK_NAMES[fitzpatrick];
+    }
+
+    private int rootChild(int cp) {
+        int page = cp >>> 8 < rootPages.length ? rootPages[cp >>> 8] : -1;
+        return page >= 0 ? rootTargets[(page << 8) | (cp & 0xFF)] : -1;
+    }
+
+    private int child(int node, int cp) {
+        int idx = Arrays.binarySearch(edgeCodepoints, edgeOffsets[node], edgeOffsets[node + 1], cp);
+        return idx >= 0 ? edgeTargets[idx] : -1;
+    }
+
+    private static final class TrieNode {
+        final Map<Integer, TrieNode> children = new TreeMap<>();
+        int emojiId = NO_EMOJI;
+        int index;
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable result of a single scan which keeps all emoji occurrences as well as the distinct emojis in
+ * order of their first occurrence together with their counts and the char offset of their first occurrence.
+ * Emojis are stored as {@link EmojiSequence}s, i.e. as variant keys resolving to the shared canonical strings.
+ */
+final class EmojiTally {
+
+    private final EmojiSequence occurrences;
+    private final EmojiSequence distinct;
+    private final int[] counts;
+    private final int[] firstOffsets;
+
+    EmojiTally(EmojiSequence occurrences, EmojiSequence distinct, int[] counts, int[] firstOffsets) {
+        this.occurrences = occurrences;
+        this.distinct = distinct;
+        this.counts = counts;
+        this.firstOffsets = firstOffsets;
+    }
+
+    EmojiSequence occurrences() {
+        return occurrences;
+    }
+
+    EmojiSequence distinct() {
+        return distinct;
+    }
+
+    int count(int index) {
+        return counts[index];
+    }
+
+    int firstOffset(int index) {
+        return firstOffsets[index];
+    }
+
+    /**
+     * Returns a read-only map view of the count per distinct emoji which iterates in order of first occurrence.
+     */
+    Map<String, Integer> counts() {
+        return new AbstractMap<>() {
+            @Override
+            public Set<Entry<String, Integer>> entrySet() {
+                return new AbstractSet<>() {
+                    @Override
+                    public Iterator<Entry<String, Integer>> iterator() {
+                        return new Iterator<>() {
+                            private int next;
+
+                            @Override
+                            public boolean hasNext() {
+                                return next < distinct.size();
+                            }
+
+                            @Override
+                            public Entry<String, Integer> next() {
+                                if(!hasNext()) {
+                                    throw new NoSuchElementException();
+                                }
+                                var entry = Map.entry(distinct.get(next), counts[next]);
+                                next++;
+                                return entry;
+                            }
+                        };
+                    }
+
+                    @Override
+                    public int size() {
+                        return distinct.size();
+                    }
+                };
+            }
+        };
+    }
+
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Space-Saving summary of the most frequent emojis which never tracks more than a fixed number of
+ * distinct emojis. Once it is full, an unseen emoji replaces the entry with the smallest count and
+ * inherits that count as its overestimation error, so that the estimated count of every tracked emoji
+ * exceeds its true count by at most the smallest tracked count.
+ * <p>
+ * Summaries are mergeable and serialize to a compact string of {@code count,error,emoji} entries
+ * separated by {@code ;} in which emojis are stored as their canonical unicode, so that serialized
+ * summaries stay valid across emoji data updates. Deserialized emojis are replaced by the canonical
+ * strings of the emoji table, so that they are the same instances that scanned occurrences yield.
+ */
+final class EmojiTopK {
+
+    static final int DEFAULT_CAPACITY = 64;
+
+    private static final char FIELD_SEPARATOR = ',';
+    private static final char ENTRY_SEPARATOR = ';';
+
+    private final int capacity;
+    private final String[] emojis;
+    private final long[] counts;
+    private final long[] errors;
+    private int size;
+
+    EmojiTopK(int capacity) {
+        if(capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        this.capacity = capacity;
+        this.emojis = new String[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds all emoji occurrences of the text, scanning it only once, and tells whether there were any.
+     */
+    boolean addAll(EmojiScanner scanner, String text) {
+        long first = scanner.next(text, 0);
+        addAll(scanner, text, first);
+        return first != EmojiScanner.NO_MATCH;
+    }
+
+    /**
+     * Adds the given occurrence and all further ones of the text, so that callers can look for the first
+     * occurrence before they deserialize a summary without scanning the text twice.
+     */
+    void addAll(EmojiScanner scanner, String text, long firstMatch) {
+        for(long m = firstMatch; m != EmojiScanner.NO_MATCH; m = scanner.next(text, scanner.end(m))) {
+            add(scanner.emoji(m), 1L);
+        }
+    }
+
+    void add(String emoji, long count) {
+        add(emoji, count, 0L);
+    }
+
+    /**
+     * Returns the estimated count of the emoji or 0 if it is not tracked.
+     */
+    long count(String emoji) {
+        int index = indexOf(emoji);
+        return index >= 0 ? counts[index] : 0L;
+    }
+
+    long error(String emoji) {
+        int index = indexOf(emoji);
+        return index >= 0 ? errors[index] : 0L;
+    }
+
+    /**
+     * Returns a new summary which covers the occurrences of both summaries.
+     */
+    EmojiTopK merge(EmojiTopK other) {
+        var merged = new EmojiTopK(Math.max(capacity, other.capacity));
+        //an emoji missing in a full summary may have occurred up to its minimum count times
+        long floor = floor();
+        long otherFloor = other.floor();
+        var candidates = new EmojiTopK(Math.max(1, size + other.size));
+        for(int i = 0; i < size; i++) {
+            int j = other.indexOf(emojis[i]);
+            candidates.append(emojis[i],
+                    counts[i] + (j >= 0 ? other.counts[j] : otherFloor),
+                    errors[i] + (j >= 0 ? other.errors[j] : otherFloor));
+        }
+        for(int j = 0; j < other.size; j++) {
+            if(indexOf(other.emojis[j]) < 0) {
+                candidates.append(other.emojis[j], other.counts[j] + floor, other.errors[j] + floor);
+            }
+        }
+        for(int i : candidates.ranking()) {
+            if(merged.size == merged.capacity) {
+                break;
+            }
+            merged.append(candidates.emojis[i], candidates.counts[i], candidates.errors[i]);
+        }
+        return merged;
+    }
+
+    /**
+     * Returns up to k emojis ordered by descending estimated count.
+     */
+    List<String> top(int k) {
+        var top = new ArrayList<String>(Math.min(k, size));
+        for(int i : ranking()) {
+            if(top.size() == k) {
+                break;
+            }
+            top.add(emojis[i]);
+        }
+        return top;
+    }
+
+    String serialize() {
+        var sb = new StringBuilder(size * 16);
+        for(int i = 0; i < size; i++) {
+            if(i > 0) {
+                sb.append(ENTRY_SEPARATOR);
+            }
+            sb.append(counts[i]).append(FIELD_SEPARATOR)
+                    .append(errors[i]).append(FIELD_SEPARATOR)
+                    .append(emojis[i]);
+        }
+        return sb.toString();
+    }
+
+    static EmojiTopK deserialize(String serialized, int capacity) {
+        return deserialize(EmojiScanner.getDefault(), serialized, capacity);
+    }
+
+    static EmojiTopK deserialize(EmojiScanner scanner, String serialized, int capacity) {
+        var summary = new EmojiTopK(capacity);
+        if(serialized == null || serialized.isEmpty()) {
+            return summary;
+        }
+        int from = 0;
+        while(from < serialized.length()) {
+            int to = serialized.indexOf(ENTRY_SEPARATOR, from);
+            if(to < 0) {
+                to = serialized.length();
+            }
+            int first = serialized.indexOf(FIELD_SEPARATOR, from);
+            int second = serialized.indexOf(FIELD_SEPARATOR, first + 1);
+            if(first < 0 || second < 0 || second >= to) {
+                throw new IllegalArgumentException("invalid serialized emoji top k entry: " + serialized.substring(from, to));
+            }
+            summary.add(canonical(scanner, serialized, second + 1, to),
+                    Long.parseLong(serialized, from, first, 10),
+                    Long.parseLong(serialized, first + 1, second, 10));
+            from = to + 1;
+        }
+        return summary;
+    }
+
+    /**
+     * Returns the canonical string of the emoji between from and to, or a copy of it if it is not a single known emoji.
+     */
+    private static String canonical(EmojiScanner scanner, String serialized, int from, int to) {
+        long m = scanner.next(serialized, from);
+        if(m != EmojiScanner.NO_MATCH && EmojiScanner.start(m) == from && scanner.end(m) == to) {
+            var emoji = scanner.emoji(m);
+            if(emoji.length() == to - from && serialized.regionMatches(from, emoji, 0, emoji.length())) {
+                return emoji;
+            }
+        }
+        return serialized.substring(from, to);
+    }
+
+    private void add(String emoji, long count, long error) {
+        int index = indexOf(emoji);
+        if(index >= 0) {
+            counts[index] += count;
+            errors[index] += error;
+        } else if(size < capacity) {
+            append(emoji, count, error);
+        } else {
+            int min = indexOfMinimum();
+            errors[min] = counts[min] + error;
+            counts[min] += count;
+            emojis[min] = emoji;
+        }
+    }
+
+    private void append(String emoji, long count, long error) {
+        emojis[size] = emoji;
+        counts[size] = count;
+        errors[size] = error;
+        size++;
+    }
+
+    private int indexOf(String emoji) {
+        for(int i = 0; i < size; i++) {
+            //scanned and deserialized emojis are canonical strings of the table, so the identity check mostly decides
+            if(emojis[i] == emoji || emojis[i].equals(emoji)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOfMinimum() {
+        int min = 0;
+        for(int i = 1; i < size; i++) {
+            if(counts[i] < counts[min]) {
+                min = i;
+            }
+        }
+        return min;
+    }
+
+    private long floor() {
+        return size < capacity ? 0L : counts[indexOfMinimum()];
+    }
+
+    private int[] ranking() {
+        return IntStream.range(0, size).boxed()
+                .sorted(Comparator.<Integer>comparingLong(i -> -counts[i]).thenComparingLong(i -> errors[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+}
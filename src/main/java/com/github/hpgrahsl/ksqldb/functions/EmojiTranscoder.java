@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiParser.FitzpatrickAction;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Replaces every emoji occurrence by a precomputed textual representation. Replacements live in a
+ * flat char pool indexed by emoji id, the Fitzpatrick handling is a small suffix table per
+ * {@link FitzpatrickAction}. Output is written into a reusable per-thread buffer so that the result
+ * string is the only allocation per call.
+ */
+final class EmojiTranscoder {
+
+    private static final int MAX_RETAINED_BUFFER_SIZE = 1 << 20;
+
+    private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[256]);
+
+    private static final Map<FitzpatrickAction, EmojiTranscoder> ALIASES = new EnumMap<>(FitzpatrickAction.class);
+    private static final Map<FitzpatrickAction, EmojiTranscoder> HTML_DECIMALS = new EnumMap<>(FitzpatrickAction.class);
+    private static final Map<FitzpatrickAction, EmojiTranscoder> HTML_HEXADECIMALS = new EnumMap<>(FitzpatrickAction.class);
+
+    static {
+        var scanner = EmojiScanner.getDefault();
+        var table = scanner.table();
+        var aliases = new ReplacementPool(table.size(), id -> ":" + table.alias(id));
+        var htmlDecimals = new ReplacementPool(table.size(), table::htmlDecimal);
+        var htmlHexadecimals = new ReplacementPool(table.size(), table::htmlHexadecimal);
+        for(FitzpatrickAction action : FitzpatrickAction.values()) {
+            ALIASES.put(action, new EmojiTranscoder(scanner, aliases, aliasSuffixes(action)));
+            var suffixes = htmlSuffixes(action);
+            HTML_DECIMALS.put(action, new EmojiTranscoder(scanner, htmlDecimals, suffixes));
+            HTML_HEXADECIMALS.put(action, new EmojiTranscoder(scanner, htmlHexadecimals, suffixes));
+        }
+    }
+
+    private final EmojiScanner scanner;
+    private final ReplacementPool replacements;
+    //indexed by fitzpatrick type + 1 so that slot 0 is used for occurrences without modifier
+    private final char[][] suffixes;
+
+    private EmojiTranscoder(EmojiScanner scanner, ReplacementPool replacements, char[][] suffixes) {
+        this.scanner = scanner;
+        this.replacements = replacements;
+        this.suffixes = suffixes;
+    }
+
+    static EmojiTranscoder aliases(FitzpatrickAction action) {
+        return ALIASES.get(action);
+    }
+
+    static EmojiTranscoder htmlDecimal(FitzpatrickAction action) {
+        return HTML_DECIMALS.get(action);
+    }
+
+    static EmojiTranscoder htmlHexadecimal(FitzpatrickAction action) {
+        return HTML_HEXADECIMALS.get(action);
+    }
+
+    String transcode(String text) {
+        long m = scanner.next(text, 0);
+        if(m == EmojiScanner.NO_MATCH) {
+            return text;
+        }
+        char[] buffer = BUFFER.get();
+        int length = 0;
+        int prev = 0;
+        for(; m != EmojiScanner.NO_MATCH; m = scanner.next(text, prev)) {
+            int start = EmojiScanner.start(m);
+            int id = EmojiScanner.emojiId(m);
+            int replacementStart = replacements.offsets[id];
+            int replacementLength = replacements.offsets[id + 1] - replacementStart;
+            char[] suffix = suffixes[EmojiScanner.fitzpatrick(m) + 1];
+            int required = length + (start - prev) + replacementLength + suffix.length;
+            if(required > buffer.length) {
+                buffer = grow(buffer, required, text.length());
+            }
+            text.getChars(prev, start, buffer, length);
+            length += start - prev;
+            System.arraycopy(replacements.chars, replacementStart, buffer, length, replacementLength);
+            length += replacementLength;
+            System.arraycopy(suffix, 0, buffer, length, suffix.length);
+            length += suffix.length;
+            prev = scanner.end(m);
+        }
+        int required = length + text.length() - prev;
+        if(required > buffer.length) {
+            buffer = grow(buffer, required, 0);
+        }
+        text.getChars(prev, text.length(), buffer, length);
+        length += text.length() - prev;
+        return new String(buffer, 0, length);
+    }
+
+    private static char[] grow(char[] buffer, int required, int hint) {
+        var grown = new char[Math.max(Math.max(required, hint * 2), buffer.length * 2)];
+        System.arraycopy(buffer, 0, grown, 0, buffer.length);
+        if(grown.length <= MAX_RETAINED_BUFFER_SIZE) {
+            BUFFER.set(grown);
+        }
+        return grown;
+    }
+
+    private static char[][] aliasSuffixes(FitzpatrickAction action) {
+        var suffixes = new char[EmojiTable.FITZPATRICK_TYPES + 1][];
+        suffixes[0] = ":".toCharArray();
+        for(int f = 0; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+            switch (action) {
+                case PARSE:
+                    suffixes[f + 1] = ("|" + EmojiTable.fitzpatrickName(f) + ":").toCharArray();
+                    break;
+                case REMOVE:
+                    suffixes[f + 1] = suffixes[0];
+                    break;
+                case IGNORE:
+                    suffixes[f + 1] = (":" + EmojiTable.fitzpatrickUnicode(f)).toCharArray();
+                    break;
+            }
+        }
+        return suffixes;
+    }
+
+    private static char[][] htmlSuffixes(FitzpatrickAction action) {
+        var suffixes = new char[EmojiTable.FITZPATRICK_TYPES + 1][];
+        suffixes[0] = new char[0];
+        for(int f = 0; f < EmojiTable.FITZPATRICK_TYPES; f++) {
+            suffixes[f + 1] = action == FitzpatrickAction.IGNORE
+                    ? EmojiTable.fitzpatrickUnicode(f).toCharArray()
+                    : suffixes[0];
+        }
+        return suffixes;
+    }
+
+    private static final class ReplacementPool {
+
+        //replacement of emoji id i is chars[offsets[i], offsets[i+1])
+        final char[] chars;
+        final int[] offsets;
+
+        ReplacementPool(int size, IntFunction<String> replacement) {
+            offsets = new int[size + 1];
+            var sb = new StringBuilder(size * 16);
+            for(int id = 0; id < size; id++) {
+                offsets[id] = sb.length();
+                sb.append(replacement.apply(id));
+            }
+            offsets[size] = sb.length();
+            chars = sb.toString().toCharArray();
+        }
+
+    }
+
+}
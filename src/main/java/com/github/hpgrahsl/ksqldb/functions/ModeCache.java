@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded cache which resolves mode arguments of UDFs (e.g. fpAction or encoding) once per distinct
+ * value instead of once per row. Invalid values are cached as well and reported only when they are
+ * resolved, which happens once per distinct value unless the cache is full, in which case reports are
+ * limited to one per minute.
+ */
+final class ModeCache<T> {
+
+    static final int MAX_SIZE = 64;
+
+    private static final Object INVALID = new Object();
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final ConcurrentMap<String, Object> resolved = new ConcurrentHashMap<>();
+    private final AtomicLong lastOverflowReport = new AtomicLong(System.nanoTime() - REPORT_INTERVAL_NANOS);
+    private final Function<String, T> resolver;
+    private final Consumer<String> invalidModeReporter;
+
+    /**
+     * @param resolver maps a mode argument to its resolved value or to null if the argument is invalid
+     * @param invalidModeReporter gets called for invalid mode arguments
+     */
+    ModeCache(Function<String, T> resolver, Consumer<String> invalidModeReporter) {
+        this.resolver = resolver;
+        this.invalidModeReporter = invalidModeReporter;
+    }
+
+    /**
+     * Returns the resolved value for the given mode argument or null if it is invalid.
+     */
+    @SuppressWarnings("unchecked")
+    T get(String mode) {
+        var value = resolved.get(mode);
+        if(value == null) {
+            value = resolve(mode);
+        }
+        return value != INVALID ? (T) value : null;
+    }
+
+    static <E extends Enum<E>> Function<String, E> enumResolver(Class<E> type, boolean ignoreCase) {
+        var constants = type.getEnumConstants();
+        return mode -> {
+            for(E constant : constants) {
+                if(ignoreCase ? constant.name().equalsIgnoreCase(mode) : constant.name().equals(mode)) {
+                    return constant;
+                }
+            }
+            return null;
+        };
+    }
+
+    private Object resolve(String mode) {
+        T t = resolver.apply(mode);
+        Object value = t != null ? t : INVALID;
+        boolean cached = resolved.size() < MAX_SIZE && resolved.putIfAbsent(mode, value) == null;
+        if(t == null && (cached || overflowReportDue())) {
+            invalidModeReporter.accept(mode);
+        }
+        return value;
+    }
+
+    private boolean overflowReportDue() {
+        long now = System.nanoTime();
+        long last = lastOverflowReport.get();
+        return now - last >= REPORT_INTERVAL_NANOS && lastOverflowReport.compareAndSet(last, now);
+    }
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Opt-in cache for UDF results of repeated inputs such as reaction-only messages or bot templates.
+ * It is enabled by setting the system property {@value #MAX_ENTRIES_PROPERTY} to a positive value and
+ * bounded by that number of entries as well as by the total number of chars retained by keys and
+ * values ({@value #MAX_CHARS_PROPERTY}, defaults to 4M chars).
+ * <p>
+ * Entries are spread over independently locked segments, each of which is a segmented LRU: new entries
+ * go into a probationary area and are only promoted into the protected area when hit again, so that
+ * bursts of one-off inputs cannot flush the frequently repeated ones. The bounds are split among the
+ * segments without rounding up, so the cache as a whole never exceeds them. Small caches use fewer
+ * segments, so that every segment can still hold a reasonable number of entries.
+ */
+final class ResultCache<V> implements ResultCacheMXBean {
+
+    static final String MAX_ENTRIES_PROPERTY = "emoji.functions.cache.max.entries";
+    static final String MAX_CHARS_PROPERTY = "emoji.functions.cache.max.chars";
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_ENTRIES = 64;
+    private static final int PROTECTED_PERCENTAGE = 80;
+
+    private final String udfName;
+    private final long maxEntries;
+    private final long maxChars;
+    private final boolean enabled;
+    private final ToIntFunction<V> weigher;
+    private final UnaryOperator<V> immutableView;
+    private final List<Segment<V>> segments = new ArrayList<>(MAX_SEGMENTS);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param weigher number of chars retained by a value
+     * @param immutableView wraps values before they are cached and handed out to callers
+     */
+    ResultCache(String udfName, long maxEntries, long maxChars, ToIntFunction<V> weigher, UnaryOperator<V> immutableView) {
+        this.udfName = udfName;
+        this.maxEntries = Math.max(0L, maxEntries);
+        this.maxChars = Math.max(0L, maxChars);
+        this.enabled = this.maxEntries > 0 && this.maxChars > 0;
+        this.weigher = weigher;
+        this.immutableView = immutableView;
+        if(enabled) {
+            //a power of two which leaves every segment at least one entry and one char
+            int count = (int) Long.highestOneBit(Math.max(1L, Math.min(Math.min(
+                    this.maxEntries / MIN_SEGMENT_ENTRIES, this.maxChars), MAX_SEGMENTS)));
+            for(int i = 0; i < count; i++) {
+                //the first segments get the remainders, so the budgets add up to the bounds exactly
+                segments.add(new Segment<>(
+                        this.maxEntries / count + (i < this.maxEntries % count ? 1 : 0),
+                        this.maxChars / count + (i < this.maxChars % count ? 1 : 0)));
+            }
+        }
+    }
+
+    static <V> ResultCache<V> of(String udfName, ToIntFunction<V> weigher, UnaryOperator<V> immutableView) {
+        var cache = new ResultCache<>(udfName,
+                Long.getLong(MAX_ENTRIES_PROPERTY, 0L), Long.getLong(MAX_CHARS_PROPERTY, 1L << 22),
+                weigher, immutableView);
+        if(cache.enabled) {
+            UdfMetrics.register(cache, "ResultCache", udfName);
+        }
+        return cache;
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the cached result for the given input and mode or null.
+     */
+    V get(String text, Object mode) {
+        if(!enabled) {
+            return null;
+        }
+        var key = new Key(text, mode);
+        var value = segment(key).get(key);
+        if(value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Caches the result for the given input and mode and returns the value which should be handed out
+     * to the caller.
+     */
+    V put(String text, Object mode, V value) {
+        if(!enabled) {
+            return value;
+        }
+        var view = immutableView.apply(value);
+        var key = new Key(text, mode);
+        evictions.add(segment(key).put(key, view, (long) text.length() + weigher.applyAsInt(value)));
+        return view;
+    }
+
+    @Override
+    public String getUdfName() {
+        return udfName;
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total > 0 ? (double) h / total : 0.0;
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public long getSize() {
+        long size = 0;
+        for(Segment<V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long getRetainedChars() {
+        long chars = 0;
+        for(Segment<V> segment : segments) {
+            chars += segment.chars();
+        }
+        return chars;
+    }
+
+    @Override
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    @Override
+    public long getMaxRetainedChars() {
+        return maxChars;
+    }
+
+    @Override
+    public void clear() {
+        for(Segment<V> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    private Segment<V> segment(Key key) {
+        int h = key.hashCode();
+        return segments.get((h ^ (h >>> 16)) & (segments.size() - 1));
+    }
+
+    private static final class Key {
+
+        final String text;
+        final Object mode;
+        final int hash;
+
+        Key(String text, Object mode) {
+            this.text = text;
+            this.mode = mode;
+            this.hash = text.hashCode() * 31 + mode.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+            if(!(o instanceof Key)) {
+                return false;
+            }
+            var other = (Key) o;
+            return hash == other.hash && mode.equals(other.mode) && text.equals(other.text);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+    }
+
+    private static final class Entry<V> {
+
+        final V value;
+        final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+
+    }
+
+    private static final class Segment<V> {
+
+        private final long maxEntries;
+        private final long maxChars;
+        private final long maxProtectedEntries;
+        private final LinkedHashMap<Key, Entry<V>> probation = new LinkedHashMap<>();
+        private final LinkedHashMap<Key, Entry<V>> protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+        private long chars;
+
+        Segment(long maxEntries, long maxChars) {
+            this.maxEntries = maxEntries;
+            this.maxChars = maxChars;
+            this.maxProtectedEntries = Math.max(1L, maxEntries * PROTECTED_PERCENTAGE / 100);
+        }
+
+        synchronized V get(Key key) {
+            var entry = protectedEntries.get(key);
+            if(entry != null) {
+                return entry.value;
+            }
+            entry = probation.remove(key);
+            if(entry == null) {
+                return null;
+            }
+            protectedEntries.put(key, entry);
+            //demoted entries get another chance as most recent probationary ones
+            while(protectedEntries.size() > maxProtectedEntries) {
+                var eldest = protectedEntries.entrySet().iterator().next();
+                protectedEntries.remove(eldest.getKey());
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+            return entry.value;
+        }
+
+        /**
+         * Returns the number of evicted entries.
+         */
+        synchronized int put(Key key, V value, long weight) {
+            if(weight > maxChars || protectedEntries.containsKey(key) || probation.containsKey(key)) {
+                return 0;
+            }
+            probation.put(key, new Entry<>(value, weight));
+            chars += weight;
+            int evicted = 0;
+            while(probation.size() + protectedEntries.size() > maxEntries || chars > maxChars) {
+                var victims = !probation.isEmpty() ? probation : protectedEntries;
+                var eldest = victims.entrySet().iterator().next();
+                victims.remove(eldest.getKey());
+                chars -= eldest.getValue().weight;
+                evicted++;
+            }
+            return evicted;
+        }
+
+        synchronized long size() {
+            return probation.size() + protectedEntries.size();
+        }
+
+        synchronized long chars() {
+            return chars;
+        }
+
+        synchronized void clear() {
+            probation.clear();
+            protectedEntries.clear();
+            chars = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+
+@UdafDescription(
+        name = "emojis_distinct_approx",
+        description = "approximates the number of distinct emojis of strings with a HyperLogLog sketch per group",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdafEmojisDistinctApprox {
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    @UdafFactory(description = "returns the approximate number of distinct emojis (standard error about 3.25%)",
+            aggregateSchema = "VARCHAR", returnSchema = "BIGINT")
+    public static Udaf<String, String, Long> createEmojisDistinctApprox() {
+        return new Udaf<>() {
+
+            @Override
+            public String initialize() {
+                return "";
+            }
+
+            @Override
+            public String aggregate(final String text, final String aggregate) {
+                long first = text != null ? SCANNER.next(text, 0) : EmojiScanner.NO_MATCH;
+                if(first == EmojiScanner.NO_MATCH) {
+                    return aggregate;
+                }
+                var sketch = EmojiHyperLogLog.deserialize(aggregate);
+                sketch.addAll(text, first);
+                return sketch.serialize();
+            }
+
+            @Override
+            public String merge(final String aggOne, final String aggTwo) {
+                if(aggOne == null || aggOne.isEmpty()) {
+                    return aggTwo;
+                }
+                if(aggTwo == null || aggTwo.isEmpty()) {
+                    return aggOne;
+                }
+                return EmojiHyperLogLog.deserialize(aggOne)
+                        .merge(EmojiHyperLogLog.deserialize(aggTwo))
+                        .serialize();
+            }
+
+            @Override
+            public Long map(final String aggregate) {
+                return EmojiHyperLogLog.deserialize(aggregate).estimate();
+            }
+
+        };
+    }
+
+}
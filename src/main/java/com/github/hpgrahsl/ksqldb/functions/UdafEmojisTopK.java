@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.function.udaf.UdafDescription;
+import io.confluent.ksql.function.udaf.UdafFactory;
+
+import java.util.List;
+
+@UdafDescription(
+        name = "emojis_top_k",
+        description = "aggregates the most frequent emojis of strings with bounded memory per group",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdafEmojisTopK {
+
+    static final int K = 10;
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    @UdafFactory(description = "returns the (up to) 10 most frequent emojis ordered by their estimated number of occurrences",
+            aggregateSchema = "VARCHAR", returnSchema = "ARRAY<VARCHAR>")
+    public static Udaf<String, String, List<String>> createEmojisTopK() {
+        return new Udaf<>() {
+
+            @Override
+            public String initialize() {
+                return "";
+            }
+
+            @Override
+            public String aggregate(final String text, final String aggregate) {
+                //ksqlDB 5.4 has no STRUCT aggregates, hence the VARCHAR summary is parsed and serialized
+                //again for every row with emojis, whereas rows without emojis leave it untouched
+                long first = text != null ? SCANNER.next(text, 0) : EmojiScanner.NO_MATCH;
+                if(first == EmojiScanner.NO_MATCH) {
+                    return aggregate;
+                }
+                var summary = EmojiTopK.deserialize(aggregate, EmojiTopK.DEFAULT_CAPACITY);
+                summary.addAll(SCANNER, text, first);
+                return summary.serialize();
+            }
+
+            @Override
+            public String merge(final String aggOne, final String aggTwo) {
+                return EmojiTopK.deserialize(aggOne, EmojiTopK.DEFAULT_CAPACITY)
+                        .merge(EmojiTopK.deserialize(aggTwo, EmojiTopK.DEFAULT_CAPACITY))
+                        .serialize();
+            }
+
+            @Override
+            public List<String> map(final String aggregate) {
+                return EmojiTopK.deserialize(aggregate, EmojiTopK.DEFAULT_CAPACITY).top(K);
+            }
+
+        };
+    }
+
+}
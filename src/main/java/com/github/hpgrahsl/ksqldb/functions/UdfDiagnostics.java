@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-UDF counters for invocations, null inputs and invalid mode arguments. Instead of logging on
+ * every affected row, a summary is logged at most once per report interval which can be configured
+ * in milliseconds with the system property {@value #REPORT_INTERVAL_PROPERTY} (defaults to 60s).
+ * The first affected row after a quiet interval is reported right away, counts which are still pending
+ * are flushed by a single daemon thread every interval, even if no further affected rows arrive.
+ * <p>
+ * This thread is owned by a {@link Reporter} which is registered as MBean, so that a reloaded UDF class
+ * shuts down the reporter of its predecessor instead of leaking its thread and class loader.
+ */
+final class UdfDiagnostics {
+
+    static final String REPORT_INTERVAL_PROPERTY = "emoji.functions.diagnostics.report.interval.ms";
+
+    private static final long REPORT_INTERVAL_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Long.getLong(REPORT_INTERVAL_PROPERTY, 60_000L));
+
+    static final String REPORTER_TYPE = "UdfDiagnosticsReporter";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfDiagnostics.class);
+
+    private static final ConcurrentMap<String, UdfDiagnostics> REGISTRY = new ConcurrentHashMap<>();
+
+    //one task flushes the pending counts of all registered UDFs
+    private static final Reporter REPORTER = Reporter.start("reporter",
+            () -> REGISTRY.values().forEach(UdfDiagnostics::reportPending), REPORT_INTERVAL_NANOS);
+
+    private final String udfName;
+    private final Logger logger;
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder nullInputs = new LongAdder();
+    private final LongAdder invalidModes = new LongAdder();
+    private final long reportIntervalNanos;
+    private final AtomicLong lastReport;
+    private final ScheduledFuture<?> scheduledReports;
+    private long reportedInvocations;
+    private long reportedNullInputs;
+    private long reportedInvalidModes;
+
+    private UdfDiagnostics(String udfName, Logger logger, long reportIntervalNanos, boolean registered) {
+        this.udfName = udfName;
+        this.logger = logger;
+        this.reportIntervalNanos = reportIntervalNanos;
+        this.lastReport = new AtomicLong(System.nanoTime() - reportIntervalNanos);
+        this.scheduledReports = registered ? null : REPORTER.schedule(this::reportPending, reportIntervalNanos);
+    }
+
+    static UdfDiagnostics of(String udfName, Logger logger) {
+        return REGISTRY.computeIfAbsent(udfName, name -> new UdfDiagnostics(name, logger, REPORT_INTERVAL_NANOS, true));
+    }
+
+    /**
+     * Creates diagnostics with the given report interval which are not registered, {@link #close()} stops their reports.
+     */
+    static UdfDiagnostics unregistered(String udfName, Logger logger, long reportInterval, TimeUnit unit) {
+        return new UdfDiagnostics(udfName, logger, unit.toNanos(reportInterval), false);
+    }
+
+    static Collection<UdfDiagnostics> all() {
+        return Collections.unmodifiableCollection(REGISTRY.values());
+    }
+
+    String udfName() {
+        return udfName;
+    }
+
+    void invocation() {
+        invocations.increment();
+    }
+
+    void nullInput() {
+        nullInputs.increment();
+        reportIfDue();
+    }
+
+    void invalidMode() {
+        invalidModes.increment();
+        reportIfDue();
+    }
+
+    long invocations() {
+        return invocations.sum();
+    }
+
+    long nullInputs() {
+        return nullInputs.sum();
+    }
+
+    long invalidModes() {
+        return invalidModes.sum();
+    }
+
+    void close() {
+        if(scheduledReports != null) {
+            scheduledReports.cancel(false);
+        }
+    }
+
+    private void reportIfDue() {
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        if(now - last >= reportIntervalNanos && lastReport.compareAndSet(last, now)) {
+            report();
+        }
+    }
+
+    private synchronized void reportPending() {
+        if(nullInputs.sum() > reportedNullInputs || invalidModes.sum() > reportedInvalidModes) {
+            reportIfDue();
+        }
+    }
+
+    private synchronized void report() {
+        long calls = invocations.sum();
+        long nulls = nullInputs.sum();
+        long invalids = invalidModes.sum();
+        long newCalls = calls - reportedInvocations;
+        if(nulls > reportedNullInputs) {
+            logger.warn("{}: UDF parameters were null in {} of {} invocations since the last report which is probably not intended",
+                    udfName, nulls - reportedNullInputs, newCalls);
+        }
+        if(invalids > reportedInvalidModes) {
+            logger.error("{}: UDF parameters were invalid in {} of {} invocations since the last report",
+                    udfName, invalids - reportedInvalidModes, newCalls);
+        }
+        reportedInvocations = calls;
+        reportedNullInputs = nulls;
+        reportedInvalidModes = invalids;
+    }
+
+    /**
+     * Daemon thread which runs the scheduled reports. Statics are per class loader, so a UDF class which
+     * ksqlDB loads again starts a new reporter and looks up the one of its predecessor by its MBean name
+     * in order to shut it down, similar to {@link UdfMetrics#register(Object, String, String)}.
+     */
+    static final class Reporter implements UdfDiagnosticsReporterMXBean {
+
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "emoji-functions-diagnostics");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        private Reporter() {
+        }
+
+        /**
+         * Starts a reporter which runs the given task every interval and shuts down any reporter
+         * which was started under the same name before, failures to find it are logged but never propagated.
+         */
+        static Reporter start(String name, Runnable task, long intervalNanos) {
+            var reporter = new Reporter();
+            reporter.schedule(task, intervalNanos);
+            try {
+                var server = ManagementFactory.getPlatformMBeanServer();
+                var objectName = UdfMetrics.objectName(REPORTER_TYPE, name);
+                if(server.isRegistered(objectName)) {
+                    server.invoke(objectName, "shutdown", new Object[0], new String[0]);
+                }
+            } catch(JMException exc) {
+                LOGGER.warn("could not shut down the previous diagnostics reporter "+name, exc);
+            }
+            UdfMetrics.register(reporter, REPORTER_TYPE, name);
+            return reporter;
+        }
+
+        ScheduledFuture<?> schedule(Runnable task, long intervalNanos) {
+            return executor.scheduleWithFixedDelay(task, intervalNanos, intervalNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdownNow();
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UdfDescription(
+        name = "emojis_analyze",
+        description = "returns whether strings contain emojis, their total and unique counts, the lists of all and of unique emojis "
+                + "and the count per emoji as one STRUCT computed in a single pass",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisAnalyze {
+
+    static final String ANALYSIS_SCHEMA_DESCRIPTOR = "STRUCT<"
+            + "CONTAINED BOOLEAN, "
+            + "TOTAL_COUNT INT, "
+            + "UNIQUE_COUNT INT, "
+            + "EMOJIS ARRAY<VARCHAR>, "
+            + "UNIQUE_EMOJIS ARRAY<VARCHAR>, "
+            + "EMOJI_COUNTS MAP<VARCHAR, INT>"
+            + ">";
+
+    static final Schema ANALYSIS_SCHEMA = SchemaBuilder.struct().optional()
+            .field("CONTAINED", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+            .field("TOTAL_COUNT", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("UNIQUE_COUNT", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("EMOJIS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+            .field("UNIQUE_EMOJIS", SchemaBuilder.array(Schema.OPTIONAL_STRING_SCHEMA).optional().build())
+            .field("EMOJI_COUNTS", SchemaBuilder.map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT32_SCHEMA).optional().build())
+            .build();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisAnalyze.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_analyze", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    @Udf(description = "analyzes the emojis contained in the given string, i.e. whether any are contained, their total and unique counts, "
+            + "the ordered list of all and of unique emojis and how often each of them occurs",
+            schema = ANALYSIS_SCHEMA_DESCRIPTOR)
+    public Struct analyzeEmojis(
+            @UdfParameter(value = "text", description = "the given text to analyze the emojis of")
+            final String text) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var tally = SCANNER.tally(text, null);
+        boolean contained = !tally.occurrences().isEmpty();
+        var analysis = new Struct(ANALYSIS_SCHEMA)
+                .put("CONTAINED", contained)
+                .put("TOTAL_COUNT", tally.occurrences().size())
+                .put("UNIQUE_COUNT", tally.distinct().size())
+                .put("EMOJIS", tally.occurrences())
+                .put("UNIQUE_EMOJIS", tally.distinct())
+                .put("EMOJI_COUNTS", tally.counts());
+        METRICS.record(start, text.length(), contained);
+        return analysis;
+
+    }
+
+}
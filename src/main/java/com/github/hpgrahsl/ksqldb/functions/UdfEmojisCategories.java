@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@UdfDescription(
+        name = "emojis_categories",
+        description = "returns the Unicode group or subgroup (e.g. 'Smileys & Emotion' or 'face-smiling') of every emoji contained in strings as array in order of occurrence",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisCategories {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisCategories.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_categories", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final ModeCache<EmojiAttributes.Level> LEVELS = new ModeCache<>(
+            ModeCache.enumResolver(EmojiAttributes.Level.class, true),
+            level -> LOGGER.error("the UDF parameter (level '"+level+"') is invalid")
+    );
+
+    @Udf(description = "returns the Unicode group of every emoji contained in the given string in order of occurrence")
+    public List<String> lookupEmojiCategories(
+            @UdfParameter(value = "text", description = "the given text in which to look up the categories of emojis")
+            final String text) {
+        return lookupEmojiCategories(text, EmojiAttributes.Level.GROUP.name());
+    }
+
+    @Udf(description = "returns the Unicode group or subgroup of every emoji contained in the given string in order of occurrence")
+    public List<String> lookupEmojiCategories(
+            @UdfParameter(value = "text", description = "the given text in which to look up the categories of emojis")
+            final String text,
+            @UdfParameter(value = "level", description = "the category level, must be either GROUP or SUBGROUP")
+            final String level) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null || level == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        var resolved = LEVELS.get(level);
+        if(resolved == null) {
+            DIAGNOSTICS.invalidMode();
+            return null;
+        }
+        long start = METRICS.start();
+        var attributes = EmojiAttributes.getDefault();
+        var categories = new ArrayList<String>();
+        for(long m = SCANNER.next(text, 0); m != EmojiScanner.NO_MATCH; m = SCANNER.next(text, SCANNER.end(m))) {
+            int category = attributes.categoryId(EmojiScanner.emojiId(m), resolved);
+            categories.add(category != EmojiAttributes.UNKNOWN ? attributes.categoryName(category, resolved) : null);
+        }
+        METRICS.record(start, text.length(), !categories.isEmpty());
+        return categories;
+
+    }
+
+}
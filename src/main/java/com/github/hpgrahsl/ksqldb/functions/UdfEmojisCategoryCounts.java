@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@UdfDescription(
+        name = "emojis_category_counts",
+        description = "returns a map from Unicode group or subgroup to the number of emojis of it contained in strings in order of first occurrence",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisCategoryCounts {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisCategoryCounts.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_category_counts", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final ModeCache<EmojiAttributes.Level> LEVELS = new ModeCache<>(
+            ModeCache.enumResolver(EmojiAttributes.Level.class, true),
+            level -> LOGGER.error("the UDF parameter (level '"+level+"') is invalid")
+    );
+
+    @Udf(description = "counts the emojis contained in the given string per Unicode group")
+    public Map<String, Integer> countEmojiCategories(
+            @UdfParameter(value = "text", description = "the given text in which to count emojis per category")
+            final String text) {
+        return countEmojiCategories(text, EmojiAttributes.Level.GROUP.name());
+    }
+
+    @Udf(description = "counts the emojis contained in the given string per Unicode group or subgroup, emojis which are not part of the Unicode emoji data are not counted")
+    public Map<String, Integer> countEmojiCategories(
+            @UdfParameter(value = "text", description = "the given text in which to count emojis per category")
+            final String text,
+            @UdfParameter(value = "level", description = "the category level, must be either GROUP or SUBGROUP")
+            final String level) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null || level == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        var resolved = LEVELS.get(level);
+        if(resolved == null) {
+            DIAGNOSTICS.invalidMode();
+            return null;
+        }
+        long start = METRICS.start();
+        var attributes = EmojiAttributes.getDefault();
+        //counts are collected by dense category id and keep the order in which categories occur first
+        var counts = new int[attributes.categoryCount(resolved)];
+        var order = new int[counts.length];
+        int distinct = 0;
+        for(long m = SCANNER.next(text, 0); m != EmojiScanner.NO_MATCH; m = SCANNER.next(text, SCANNER.end(m))) {
+            int category = attributes.categoryId(EmojiScanner.emojiId(m), resolved);
+            if(category != EmojiAttributes.UNKNOWN && counts[category]++ == 0) {
+                order[distinct++] = category;
+            }
+        }
+        var categoryCounts = new LinkedHashMap<String, Integer>();
+        for(int i = 0; i < distinct; i++) {
+            categoryCounts.put(attributes.categoryName(order[i], resolved), counts[order[i]]);
+        }
+        METRICS.record(start, text.length(), distinct > 0);
+        return categoryCounts;
+
+    }
+
+}
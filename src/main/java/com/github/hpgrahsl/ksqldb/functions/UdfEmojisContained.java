@@ -16,15 +16,13 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
-import com.vdurmont.emoji.EmojiManager;
-import com.vdurmont.emoji.EmojiParser;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
+import java.nio.ByteBuffer;
 import java.util.List;
 
 @UdfDescription(
@@ -37,19 +35,61 @@ public class UdfEmojisContained {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisContained.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_contained", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final DistinctReporter<List<String>> IGNORED_ENTRIES = new DistinctReporter<>(
+            ignored -> LOGGER.warn("the UDF parameter ('specificEmojis') contains null or unknown entries "+ignored+" which are ignored")
+    );
+
+    private volatile EmojiMatcher specificEmojisMatcher;
+
     @Udf(description = "checks whether or not the given string contains emojis")
     public Boolean containsEmojis(
             @UdfParameter(value = "text", description = "the given text in which to check for any(!) emoji occurrences")
             final String text) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null) {
-            LOGGER.warn("the UDF parameter ('text') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
-        return EmojiManager.containsEmoji(text);
+
+        long start = METRICS.start();
+        boolean contained = SCANNER.contains(text);
+        METRICS.record(start, text.length(), contained);
+        return contained;
 
     }
 
+    /**
+     * Variant of {@link #containsEmojis(String)} for UTF-8 encoded text which is scanned without decoding it.
+     * It is not registered as ksqlDB function because ksqlDB 5.4 does not support a BYTES type.
+     */
+    public Boolean containsEmojis(final ByteBuffer utf8Text) {
+
+        DIAGNOSTICS.invocation();
+
+        if(utf8Text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        boolean contained = Utf8EmojiScanner.getDefault().contains(utf8Text);
+        METRICS.record(start, utf8Text.remaining(), contained);
+        return contained;
+
+    }
+
+    public Boolean containsEmojis(final byte[] utf8Text) {
+        return containsEmojis(utf8Text != null ? ByteBuffer.wrap(utf8Text) : null);
+    }
+
     @Udf(description = "checks whether or not the given string contains emojis")
     public Boolean containsEmojis(
             @UdfParameter(value = "text", description = "the given text in which to check for any of the specified emoji occurrences")
@@ -57,15 +97,30 @@ public class UdfEmojisContained {
             @UdfParameter(value = "specificEmojis", description = "a list of specific emojis to look for")
             final List<String> specificEmojis) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null || specificEmojis == null) {
-            LOGGER.warn("any of the UDF parameters ('text','specificEmojis') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        var containedEmojis = new HashSet<>(EmojiParser.extractEmojis(text));
-        containedEmojis.retainAll(new HashSet<>(specificEmojis));
-        return containedEmojis.size() > 0;
+        long start = METRICS.start();
+        boolean contained = matcherFor(specificEmojis).containedIn(text);
+        METRICS.record(start, text.length(), contained);
+        return contained;
 
     }
 
-}
+    private EmojiMatcher matcherFor(List<String> specificEmojis) {
+        var matcher = specificEmojisMatcher;
+        if(matcher == null || !matcher.isCompiledFrom(specificEmojis)) {
+            matcher = EmojiMatcher.compile(SCANNER, specificEmojis);
+            if(!matcher.ignoredEntries().isEmpty()) {
+                IGNORED_ENTRIES.report(matcher.ignoredEntries());
+            }
+            specificEmojisMatcher = matcher;
+        }
+        return matcher;
+    }
+
+}
\ No newline at end of file
@@ -16,14 +16,13 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
-import com.vdurmont.emoji.EmojiParser;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashSet;
+import java.nio.ByteBuffer;
 
 @UdfDescription(
         name = "emojis_count",
@@ -35,6 +34,17 @@ public class UdfEmojisCount {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisCount.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_count", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final ResultCache<Integer> CACHE = ResultCache.of("emojis_count", count -> 0, count -> count);
+
+    //cache mode of normalized unique counts, counts which aren't normalized are cached by the unique flag
+    private static final Object NORMALIZED_UNIQUE = "normalized_unique";
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
     @Udf(description = "counts the number of potentially contained emojis with or without duplicates from the given string")
     public Integer countEmojis(
             @UdfParameter(value = "text", description = "the given text in which to count emojis")
@@ -42,15 +52,80 @@ public class UdfEmojisCount {
             @UdfParameter(value = "unique", description = "if true will return count of unique emojis, if false counts all emojis i.e. also duplicates")
             final boolean unique) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null) {
-            LOGGER.warn("the UDF parameter ('text') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        return !unique
-                ? EmojiParser.extractEmojis(text).size()
-                : new HashSet<>(EmojiParser.extractEmojis(text)).size();
+        long start = METRICS.start();
+        var count = CACHE.get(text, unique);
+        if(count == null) {
+            count = CACHE.put(text, unique, !unique
+                    ? SCANNER.count(text)
+                    : SCANNER.countUnique(text));
+        }
+        METRICS.record(start, text.length(), count > 0);
+        return count;
+
+    }
+
+    @Udf(description = "counts the number of potentially contained emojis with or without duplicates from the given string, optionally normalized to base emojis")
+    public Integer countEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to count emojis")
+            final String text,
+            @UdfParameter(value = "unique", description = "if true will return count of unique emojis, if false counts all emojis i.e. also duplicates")
+            final boolean unique,
+            @UdfParameter(value = "normalize", description = "if true will fold Fitzpatrick modifiers and variation selectors, i.e. count base emojis, gender and hair components are kept unless the text is normalized with EMOJIS_NORMALIZE first")
+            final boolean normalize) {
+
+        //normalizing doesn't change the number of occurrences, only which of them are duplicates
+        if(!normalize || !unique) {
+            return countEmojis(text, unique);
+        }
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var count = CACHE.get(text, NORMALIZED_UNIQUE);
+        if(count == null) {
+            count = CACHE.put(text, NORMALIZED_UNIQUE, SCANNER.countUnique(text, EmojiNormalizer.getDefault(false, false)));
+        }
+        METRICS.record(start, text.length(), count > 0);
+        return count;
+
+    }
+
+    /**
+     * Variant of {@link #countEmojis(String, boolean)} for UTF-8 encoded text which is scanned without decoding it.
+     * It is not registered as ksqlDB function because ksqlDB 5.4 does not support a BYTES type.
+     */
+    public Integer countEmojis(final ByteBuffer utf8Text, final boolean unique) {
+
+        DIAGNOSTICS.invocation();
+
+        if(utf8Text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        int count = !unique
+                ? Utf8EmojiScanner.getDefault().count(utf8Text)
+                : Utf8EmojiScanner.getDefault().countUnique(utf8Text);
+        METRICS.record(start, utf8Text.remaining(), count > 0);
+        return count;
+
+    }
 
+    public Integer countEmojis(final byte[] utf8Text, final boolean unique) {
+        return countEmojis(utf8Text != null ? ByteBuffer.wrap(utf8Text) : null, unique);
     }
 
 }
@@ -16,16 +16,15 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
-import com.vdurmont.emoji.EmojiParser;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.nio.ByteBuffer;
 import java.util.List;
+import java.util.function.UnaryOperator;
 
 @UdfDescription(
         name = "emojis_extract",
@@ -37,6 +36,20 @@ public class UdfEmojisExtract {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisExtract.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_extract", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    //extracted emoji sequences are immutable and can be handed out by the cache as they are
+    private static final ResultCache<List<String>> CACHE = ResultCache.of("emojis_extract",
+            emojis -> emojis.stream().mapToInt(String::length).sum(), UnaryOperator.identity());
+
+    //cache modes of normalized results, results which aren't normalized are cached by the unique flag
+    private static final Object NORMALIZED = "normalized";
+    private static final Object NORMALIZED_UNIQUE = "normalized_unique";
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
     @Udf(description = "extracts a list of potentially contained emojis with or without duplicates from the given string")
     public List<String> extractEmojis(
             @UdfParameter(value = "text", description = "the given text to extract emojis from")
@@ -44,15 +57,76 @@ public class UdfEmojisExtract {
             @UdfParameter(value = "unique", description = "if true will return only unique emojis (set semantic), if false every emoji i.e. also duplicate ones (list semantic) will be returned")
             final boolean unique) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null) {
-            LOGGER.warn("the UDF parameter ('text') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        return !unique
-                ? EmojiParser.extractEmojis(text)
-                : new ArrayList<>(new LinkedHashSet<>(EmojiParser.extractEmojis(text)));
+        long start = METRICS.start();
+        var emojis = CACHE.get(text, unique);
+        if(emojis == null) {
+            emojis = CACHE.put(text, unique, SCANNER.extract(text, unique));
+        }
+        METRICS.record(start, text.length(), !emojis.isEmpty());
+        return emojis;
+
+    }
+
+    @Udf(description = "extracts a list of potentially contained emojis with or without duplicates from the given string, optionally normalized to base emojis")
+    public List<String> extractEmojis(
+            @UdfParameter(value = "text", description = "the given text to extract emojis from")
+            final String text,
+            @UdfParameter(value = "unique", description = "if true will return only unique emojis (set semantic), if false every emoji i.e. also duplicate ones (list semantic) will be returned")
+            final boolean unique,
+            @UdfParameter(value = "normalize", description = "if true will fold Fitzpatrick modifiers and variation selectors, i.e. return base emojis, gender and hair components are kept unless the text is normalized with EMOJIS_NORMALIZE first")
+            final boolean normalize) {
+
+        if(!normalize) {
+            return extractEmojis(text, unique);
+        }
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var mode = unique ? NORMALIZED_UNIQUE : NORMALIZED;
+        var emojis = CACHE.get(text, mode);
+        if(emojis == null) {
+            emojis = CACHE.put(text, mode, SCANNER.extract(text, unique, EmojiNormalizer.getDefault(false, false)));
+        }
+        METRICS.record(start, text.length(), !emojis.isEmpty());
+        return emojis;
+
+    }
+
+    /**
+     * Variant of {@link #extractEmojis(String, boolean)} for UTF-8 encoded text which is scanned without decoding it.
+     * It is not registered as ksqlDB function because ksqlDB 5.4 does not support a BYTES type.
+     */
+    public List<String> extractEmojis(final ByteBuffer utf8Text, final boolean unique) {
+
+        DIAGNOSTICS.invocation();
+
+        if(utf8Text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var emojis = Utf8EmojiScanner.getDefault().extract(utf8Text, unique);
+        METRICS.record(start, utf8Text.remaining(), !emojis.isEmpty());
+        return emojis;
+
+    }
 
+    public List<String> extractEmojis(final byte[] utf8Text, final boolean unique) {
+        return extractEmojis(utf8Text != null ? ByteBuffer.wrap(utf8Text) : null, unique);
     }
 
 }
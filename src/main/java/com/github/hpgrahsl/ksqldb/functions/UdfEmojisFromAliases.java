@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UdfDescription(
+        name = "emojis_from_aliases",
+        description = "replaces textual emoji aliases contained in a string by the emojis, i.e. reverses emojis_to_aliases",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisFromAliases {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisFromAliases.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_from_aliases", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    @Udf(description = "replace textual aliases contained in a string by the emojis")
+    public String replaceAliasesWithEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to replace any(!) aliases like :smile: or :thumbsup|type_3: by emojis")
+            final String text) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var decoded = EmojiDecoder.defaultAliases().decode(text);
+        METRICS.recordRewrite(start, text, decoded);
+        return decoded;
+
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UdfDescription(
+        name = "emojis_normalize",
+        description = "normalizes emojis contained in a string to canonical base emojis",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisNormalize {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisNormalize.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_normalize", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    @Udf(description = "folds Fitzpatrick modifiers and variation selectors of emojis contained in a string")
+    public String normalizeEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to normalize emojis")
+            final String text) {
+        return normalizeEmojis(text, false, false);
+    }
+
+    @Udf(description = "folds Fitzpatrick modifiers, variation selectors and optionally gender and hair components of emojis contained in a string")
+    public String normalizeEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to normalize emojis")
+            final String text,
+            @UdfParameter(value = "foldGender", description = "if true will fold gendered emojis to their gender neutral form and drop gender signs if the result is a known emoji")
+            final boolean foldGender,
+            @UdfParameter(value = "foldHair", description = "if true will drop hair components if the result is a known emoji")
+            final boolean foldHair) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var normalized = EmojiNormalizer.getDefault(foldGender, foldHair).normalize(text);
+        METRICS.recordRewrite(start, text, normalized);
+        return normalized;
+
+    }
+
+}
@@ -16,8 +16,6 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
-import com.vdurmont.emoji.EmojiManager;
-import com.vdurmont.emoji.EmojiParser;
 import io.confluent.ksql.function.udf.Udf;
 import io.confluent.ksql.function.udf.UdfDescription;
 import io.confluent.ksql.function.udf.UdfParameter;
@@ -25,7 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @UdfDescription(
         name = "emojis_remove",
@@ -37,16 +34,34 @@ public class UdfEmojisRemove {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisRemove.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_remove", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final DistinctReporter<List<String>> IGNORED_ENTRIES = new DistinctReporter<>(
+            ignored -> LOGGER.warn("the UDF parameter ('specificEmojis') contains null or unknown entries "+ignored+" which are ignored")
+    );
+
+    private volatile EmojiMatcher specificEmojisMatcher;
+
     @Udf(description = "removes emojis contained in a string")
     public String removeEmojis(
             @UdfParameter(value = "text", description = "the given text from which to remove any(!) emojis")
             final String text) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null) {
-            LOGGER.warn("the UDF parameter ('text') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
-        return EmojiParser.removeAllEmojis(text);
+
+        long start = METRICS.start();
+        var removed = SCANNER.remove(text);
+        METRICS.recordRewrite(start, text, removed);
+        return removed;
 
     }
 
@@ -57,17 +72,30 @@ public class UdfEmojisRemove {
             @UdfParameter(value = "specificEmojis", description = "a list of specific emojis to remove")
             final List<String> specificEmojis) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null || specificEmojis == null) {
-            LOGGER.warn("any of the UDF parameters ('text','specificEmojis') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        return EmojiParser.removeEmojis(text,
-                        specificEmojis.stream()
-                                .map(EmojiManager::getByUnicode)
-                                .collect(Collectors.toList())
-        );
+        long start = METRICS.start();
+        var removed = matcherFor(specificEmojis).removeFrom(text);
+        METRICS.recordRewrite(start, text, removed);
+        return removed;
 
     }
 
-}
+    private EmojiMatcher matcherFor(List<String> specificEmojis) {
+        var matcher = specificEmojisMatcher;
+        if(matcher == null || !matcher.isCompiledFrom(specificEmojis)) {
+            matcher = EmojiMatcher.compile(SCANNER, specificEmojis);
+            if(!matcher.ignoredEntries().isEmpty()) {
+                IGNORED_ENTRIES.report(matcher.ignoredEntries());
+            }
+            specificEmojisMatcher = matcher;
+        }
+        return matcher;
+    }
+
+}
\ No newline at end of file
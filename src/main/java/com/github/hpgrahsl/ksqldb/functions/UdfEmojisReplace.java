@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+
+@UdfDescription(
+        name = "emojis_replace",
+        description = "replaces emojis contained in a string by replacements of a given mapping",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisReplace {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisReplace.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_replace", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private static final DistinctReporter<List<String>> IGNORED_KEYS = new DistinctReporter<>(
+            ignored -> LOGGER.warn("the UDF parameter ('replacements') contains null values or unknown emojis "+ignored+" which are ignored")
+    );
+
+    private volatile EmojiReplacer replacer;
+
+    @Udf(description = "replaces the mapped emojis contained in a string and keeps all others")
+    public String replaceEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to replace the mapped emojis")
+            final String text,
+            @UdfParameter(value = "replacements", description = "the replacement per emoji, an emoji without Fitzpatrick modifier covers all of its skin tones")
+            final Map<String, String> replacements) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null || replacements == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var replaced = replacerFor(replacements, null).replaceIn(text);
+        METRICS.recordRewrite(start, text, replaced);
+        return replaced;
+
+    }
+
+    @Udf(description = "replaces the mapped emojis contained in a string and all others by a default replacement")
+    public String replaceEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to replace any(!) emojis")
+            final String text,
+            @UdfParameter(value = "replacements", description = "the replacement per emoji, an emoji without Fitzpatrick modifier covers all of its skin tones")
+            final Map<String, String> replacements,
+            @UdfParameter(value = "defaultReplacement", description = "the replacement of all emojis which aren't mapped")
+            final String defaultReplacement) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null || replacements == null || defaultReplacement == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var replaced = replacerFor(replacements, defaultReplacement).replaceIn(text);
+        METRICS.recordRewrite(start, text, replaced);
+        return replaced;
+
+    }
+
+    private EmojiReplacer replacerFor(Map<String, String> replacements, String defaultReplacement) {
+        var compiled = replacer;
+        if(compiled == null || !compiled.isCompiledFrom(replacements, defaultReplacement)) {
+            compiled = EmojiReplacer.compile(SCANNER, replacements, defaultReplacement);
+            if(!compiled.ignoredKeys().isEmpty()) {
+                IGNORED_KEYS.report(compiled.ignoredKeys());
+            }
+            replacer = compiled;
+        }
+        return compiled;
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UdfDescription(
+        name = "emojis_sanitize",
+        description = "removes or replaces the emojis of strings by a placeholder, drops variation selectors, skin tone modifiers and zero width joiners left over outside of emojis and collapses runs of whitespace, all in a single pass",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisSanitize {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisSanitize.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_sanitize", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    private volatile EmojiSanitizer sanitizer;
+
+    @Udf(description = "removes emojis as well as orphaned emoji modifiers and collapses whitespace")
+    public String sanitizeEmojis(
+            @UdfParameter(value = "text", description = "the given text to sanitize")
+            final String text) {
+        return sanitizeEmojis(text, "", true, true);
+    }
+
+    @Udf(description = "replaces emojis by a placeholder, removes orphaned emoji modifiers and collapses whitespace")
+    public String sanitizeEmojis(
+            @UdfParameter(value = "text", description = "the given text to sanitize")
+            final String text,
+            @UdfParameter(value = "replacement", description = "the placeholder for every emoji, an empty string removes emojis")
+            final String replacement) {
+        return sanitizeEmojis(text, replacement, true, true);
+    }
+
+    @Udf(description = "replaces emojis by a placeholder and optionally removes orphaned emoji modifiers and collapses whitespace")
+    public String sanitizeEmojis(
+            @UdfParameter(value = "text", description = "the given text to sanitize")
+            final String text,
+            @UdfParameter(value = "replacement", description = "the placeholder for every emoji, an empty string removes emojis")
+            final String replacement,
+            @UdfParameter(value = "stripModifiers", description = "if true removes variation selectors, Fitzpatrick modifiers and zero width joiners which are not part of an emoji")
+            final boolean stripModifiers,
+            @UdfParameter(value = "collapseWhitespace", description = "if true collapses runs of whitespace into single spaces and trims leading and trailing whitespace")
+            final boolean collapseWhitespace) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null || replacement == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var sanitized = sanitizerFor(replacement, stripModifiers, collapseWhitespace).sanitize(text);
+        METRICS.recordRewrite(start, text, sanitized);
+        return sanitized;
+
+    }
+
+    private EmojiSanitizer sanitizerFor(String replacement, boolean stripModifiers, boolean collapseWhitespace) {
+        var current = sanitizer;
+        if(current == null || !current.isConfiguredWith(replacement, stripModifiers, collapseWhitespace)) {
+            current = new EmojiSanitizer(SCANNER, replacement, stripModifiers, collapseWhitespace);
+            sanitizer = current;
+        }
+        return current;
+    }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@UdfDescription(
+        name = "emojis_sentiment",
+        description = "returns the average Emoji Sentiment Ranking score in (-1, 1) of the emojis contained in strings",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisSentiment {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisSentiment.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_sentiment", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    //null selects the default attributes which are loaded on first use
+    private final EmojiAttributes attributes;
+
+    public UdfEmojisSentiment() {
+        this(null);
+    }
+
+    UdfEmojisSentiment(EmojiAttributes attributes) {
+        this.attributes = attributes;
+    }
+
+    @Udf(description = "returns the average sentiment score in (-1, 1) of all emojis contained in the given string which are ranked, or null if there are none")
+    public Double scoreEmojiSentiment(
+            @UdfParameter(value = "text", description = "the given text in which to score the sentiment of emojis")
+            final String text) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var attributes = this.attributes != null ? this.attributes : EmojiAttributes.getDefault();
+        double sum = 0.0;
+        int count = 0;
+        for(long m = SCANNER.next(text, 0); m != EmojiScanner.NO_MATCH; m = SCANNER.next(text, SCANNER.end(m))) {
+            int id = EmojiScanner.emojiId(m);
+            if(attributes.hasSentiment(id)) {
+                sum += attributes.sentiment(id);
+                count++;
+            }
+        }
+        METRICS.record(start, text.length(), count > 0);
+        return count > 0 ? sum / count : null;
+
+    }
+
+}
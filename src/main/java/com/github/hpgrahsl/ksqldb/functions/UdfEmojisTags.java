@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.Udf;
+import io.confluent.ksql.function.udf.UdfDescription;
+import io.confluent.ksql.function.udf.UdfParameter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@UdfDescription(
+        name = "emojis_tags",
+        description = "returns the distinct emoji-java tags (e.g. 'happy' or 'pizza') of all emojis contained in strings as array in order of occurrence",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdfEmojisTags {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisTags.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_tags", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    @Udf(description = "returns the distinct tags of all emojis contained in the given string in order of occurrence")
+    public List<String> lookupEmojiTags(
+            @UdfParameter(value = "text", description = "the given text in which to look up the tags of emojis")
+            final String text) {
+
+        DIAGNOSTICS.invocation();
+
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return null;
+        }
+
+        long start = METRICS.start();
+        var table = SCANNER.table();
+        var tags = new LinkedHashSet<String>();
+        for(long m = SCANNER.next(text, 0); m != EmojiScanner.NO_MATCH; m = SCANNER.next(text, SCANNER.end(m))) {
+            int id = EmojiScanner.emojiId(m);
+            for(int i = 0; i < table.tagCount(id); i++) {
+                tags.add(table.tag(id, i));
+            }
+        }
+        METRICS.record(start, text.length(), !tags.isEmpty());
+        return new ArrayList<>(tags);
+
+    }
+
+}
@@ -33,6 +33,17 @@ public class UdfEmojisToAliases {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisToAliases.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_to_aliases", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final ResultCache<String> CACHE = ResultCache.of("emojis_to_aliases", String::length, transcoded -> transcoded);
+
+    private static final ModeCache<EmojiTranscoder> TRANSCODERS = new ModeCache<>(
+            ModeCache.enumResolver(EmojiParser.FitzpatrickAction.class, true).andThen(EmojiTranscoder::aliases),
+            fpAction -> LOGGER.error("the UDF parameter (fpAction '"+fpAction+"') is invalid")
+    );
+
     @Udf(description = "replace emojis contained in a string by their textual aliases")
     public String replaceEmojisWithAliases(
             @UdfParameter(value = "text", description = "the given text in which to replace any(!) emojis by their textual aliases")
@@ -40,18 +51,26 @@ public class UdfEmojisToAliases {
             @UdfParameter(value = "fpAction",description = "how to deal with Fitzpatrick modifiers, must be either PARSE, REMOVE or IGNORE")
             final String fpAction) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null || fpAction == null) {
-            LOGGER.warn("any of the UDF parameters ('text','fpAction') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        try {
-            return EmojiParser.parseToAliases(text, EmojiParser.FitzpatrickAction.valueOf(fpAction.toUpperCase()));
-        } catch(IllegalArgumentException e) {
-            LOGGER.error("the UDF parameter (fpAction '"+fpAction+"') is invalid", e);
+        var transcoder = TRANSCODERS.get(fpAction);
+        if(transcoder == null) {
+            DIAGNOSTICS.invalidMode();
             return null;
         }
+        long start = METRICS.start();
+        var transcoded = CACHE.get(text, transcoder);
+        if(transcoded == null) {
+            transcoded = CACHE.put(text, transcoder, transcoder.transcode(text));
+        }
+        METRICS.recordRewrite(start, text, transcoded);
+        return transcoded;
 
     }
 
-}
+}
\ No newline at end of file
@@ -33,11 +33,32 @@ public class UdfEmojisToHtmlCodepoints {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(UdfEmojisToHtmlCodepoints.class);
 
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_to_htmlcodepoints", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final ResultCache<String> CACHE = ResultCache.of("emojis_to_htmlcodepoints", String::length, transcoded -> transcoded);
+
     public enum EncodingStyle {
         HEX,
         DEC
     }
 
+    private static final ModeCache<EncodingStyle> ENCODING_STYLES = new ModeCache<>(
+            ModeCache.enumResolver(EncodingStyle.class, false),
+            encoding -> LOGGER.error("the UDF parameter (encoding '"+encoding+"') is invalid")
+    );
+
+    private static final ModeCache<EmojiTranscoder> DECIMAL_TRANSCODERS = new ModeCache<>(
+            ModeCache.enumResolver(EmojiParser.FitzpatrickAction.class, true).andThen(EmojiTranscoder::htmlDecimal),
+            fpAction -> LOGGER.error("the UDF parameter (fpAction '"+fpAction+"') is invalid")
+    );
+
+    private static final ModeCache<EmojiTranscoder> HEXADECIMAL_TRANSCODERS = new ModeCache<>(
+            ModeCache.enumResolver(EmojiParser.FitzpatrickAction.class, true).andThen(EmojiTranscoder::htmlHexadecimal),
+            fpAction -> LOGGER.error("the UDF parameter (fpAction '"+fpAction+"') is invalid")
+    );
+
     @Udf(description = "replace emojis contained in a string by their HTML codepoints")
     public String replaceEmojisWithCodepoints(
             @UdfParameter(value = "text", description = "the given text in which to replace any(!) emojis by their HTML codepoints")
@@ -47,24 +68,33 @@ public class UdfEmojisToHtmlCodepoints {
             @UdfParameter(value = "encoding", description = "which HTML codepoints representation to use, must be one of: HEX, DEC")
             final String encoding) {
 
+        DIAGNOSTICS.invocation();
+
         if(text == null || fpAction == null || encoding == null) {
-            LOGGER.warn("any of the UDF parameters ('text','fpAction','encoding') was null which is probably not intended");
+            DIAGNOSTICS.nullInput();
             return null;
         }
 
-        try {
-            switch (EncodingStyle.valueOf(encoding)) {
-                case DEC:
-                    return EmojiParser.parseToHtmlDecimal(text, EmojiParser.FitzpatrickAction.valueOf(fpAction.toUpperCase()));
-                case HEX:
-                    return EmojiParser.parseToHtmlHexadecimal(text, EmojiParser.FitzpatrickAction.valueOf(fpAction.toUpperCase()));
-            }
-        } catch(IllegalArgumentException e) {
-            LOGGER.error("any of the UDF parameters (fpAction '"+fpAction+"' or encoding '"+encoding+"') is invalid", e);
+        var style = ENCODING_STYLES.get(encoding);
+        if(style == null) {
+            DIAGNOSTICS.invalidMode();
+            return null;
         }
-
-        return null;
+        var transcoder = style == EncodingStyle.DEC
+                ? DECIMAL_TRANSCODERS.get(fpAction)
+                : HEXADECIMAL_TRANSCODERS.get(fpAction);
+        if(transcoder == null) {
+            DIAGNOSTICS.invalidMode();
+            return null;
+        }
+        long start = METRICS.start();
+        var transcoded = CACHE.get(text, transcoder);
+        if(transcoded == null) {
+            transcoded = CACHE.put(text, transcoder, transcoder.transcode(text));
+        }
+        METRICS.recordRewrite(start, text, transcoded);
+        return transcoded;
 
     }
 
-}
+}
\ No newline at end of file
@@ -0,0 +1,299 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional per-UDF instrumentation which records latencies, input lengths and emoji hits into striped
+ * counters and exposes them as JMX MBean. Recording is switched on with the system property
+ * {@value #ENABLED_PROPERTY} and otherwise reduces to a constant check the JIT removes entirely.
+ * <p>
+ * Latencies are recorded into a log-linear histogram with 8 sub-buckets per power of two, so that
+ * reported percentiles have a relative error of at most 12.5%.
+ */
+final class UdfMetrics implements UdfMetricsMXBean {
+
+    static final String ENABLED_PROPERTY = "emoji.functions.metrics.enabled";
+    static final String JMX_DOMAIN = "com.github.hpgrahsl.ksqldb.functions";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdfMetrics.class);
+
+    private static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int LATENCY_BUCKETS = LINEAR_LIMIT + (Long.SIZE - 1 - 4) * SUB_BUCKETS + SUB_BUCKETS;
+    private static final int LENGTH_BUCKETS = Integer.SIZE;
+
+    private final UdfDiagnostics diagnostics;
+    private final boolean enabled;
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder emojiHits = new LongAdder();
+    private final LongAdder inputLengthSum = new LongAdder();
+    private final LongAdder latencySum = new LongAdder();
+    private final LongAccumulator latencyMax = new LongAccumulator(Math::max, 0L);
+    private final LongAdder[] inputLengths;
+    private final LongAdder[] latencies;
+
+    UdfMetrics(UdfDiagnostics diagnostics, boolean enabled) {
+        this.diagnostics = diagnostics;
+        this.enabled = enabled;
+        this.inputLengths = enabled ? adders(LENGTH_BUCKETS) : new LongAdder[0];
+        this.latencies = enabled ? adders(LATENCY_BUCKETS) : new LongAdder[0];
+    }
+
+    static UdfMetrics of(UdfDiagnostics diagnostics) {
+        var metrics = new UdfMetrics(diagnostics, ENABLED);
+        if(ENABLED) {
+            metrics.register();
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the start timestamp to pass to {@link #record(long, int, boolean)}.
+     */
+    long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    /**
+     * Records a completed invocation which was started at the given timestamp.
+     *
+     * @param inputLength length of the text argument
+     * @param emojiHit whether the text contained at least one relevant emoji
+     */
+    void record(long start, int inputLength, boolean emojiHit) {
+        if(!enabled) {
+            return;
+        }
+        long latency = Math.max(0L, System.nanoTime() - start);
+        recorded.increment();
+        if(emojiHit) {
+            emojiHits.increment();
+        }
+        inputLengthSum.add(inputLength);
+        inputLengths[lengthBucket(inputLength)].increment();
+        latencySum.add(latency);
+        latencies[latencyBucket(latency)].increment();
+        latencyMax.accumulate(latency);
+    }
+
+    /**
+     * Records a completed invocation of a UDF which rewrites the text, where unchanged text means no emoji hit.
+     */
+    void recordRewrite(long start, String text, String rewritten) {
+        if(!enabled) {
+            return;
+        }
+        record(start, text.length(), rewritten != text && !rewritten.equals(text));
+    }
+
+    ObjectName objectName() throws JMException {
+        return objectName("UdfMetrics", diagnostics.udfName());
+    }
+
+    void register() {
+        register(this, "UdfMetrics", diagnostics.udfName());
+    }
+
+    static ObjectName objectName(String type, String udfName) throws JMException {
+        return new ObjectName(JMX_DOMAIN+":type="+type+",name="+udfName);
+    }
+
+    /**
+     * Registers the MBean with the platform MBean server, failures are logged but never propagated.
+     */
+    static void register(Object mbean, String type, String udfName) {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = objectName(type, udfName);
+            //a reloaded UDF class replaces the MBean of its predecessor
+            if(server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch(JMException exc) {
+            LOGGER.warn("could not register "+type+" MBean for UDF "+udfName, exc);
+        }
+    }
+
+    @Override
+    public String getUdfName() {
+        return diagnostics.udfName();
+    }
+
+    @Override
+    public long getInvocations() {
+        return diagnostics.invocations();
+    }
+
+    @Override
+    public long getNullInputs() {
+        return diagnostics.nullInputs();
+    }
+
+    @Override
+    public long getInvalidModes() {
+        return diagnostics.invalidModes();
+    }
+
+    @Override
+    public long getRecordedInvocations() {
+        return recorded.sum();
+    }
+
+    @Override
+    public long getEmojiHits() {
+        return emojiHits.sum();
+    }
+
+    @Override
+    public double getEmojiHitRatio() {
+        long count = recorded.sum();
+        return count > 0 ? (double) emojiHits.sum() / count : 0.0;
+    }
+
+    @Override
+    public double getMeanInputLength() {
+        long count = recorded.sum();
+        return count > 0 ? (double) inputLengthSum.sum() / count : 0.0;
+    }
+
+    @Override
+    public long[] getInputLengthHistogram() {
+        return snapshot(inputLengths);
+    }
+
+    @Override
+    public double getMeanLatencyNanos() {
+        long count = recorded.sum();
+        return count > 0 ? (double) latencySum.sum() / count : 0.0;
+    }
+
+    @Override
+    public long getLatencyNanosP50() {
+        return latencyPercentile(0.5);
+    }
+
+    @Override
+    public long getLatencyNanosP90() {
+        return latencyPercentile(0.9);
+    }
+
+    @Override
+    public long getLatencyNanosP99() {
+        return latencyPercentile(0.99);
+    }
+
+    @Override
+    public long getLatencyNanosP999() {
+        return latencyPercentile(0.999);
+    }
+
+    @Override
+    public long getMaxLatencyNanos() {
+        return latencyMax.get();
+    }
+
+    @Override
+    public void reset() {
+        recorded.reset();
+        emojiHits.reset();
+        inputLengthSum.reset();
+        latencySum.reset();
+        latencyMax.reset();
+        for(LongAdder adder : inputLengths) {
+            adder.reset();
+        }
+        for(LongAdder adder : latencies) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Returns the upper bound of the bucket which holds the given percentile of recorded latencies.
+     */
+    long latencyPercentile(double percentile) {
+        long[] counts = snapshot(latencies);
+        long total = 0;
+        for(long c : counts) {
+            total += c;
+        }
+        if(total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for(int b = 0; b < counts.length; b++) {
+            seen += counts[b];
+            if(seen >= rank) {
+                return Math.min(bucketUpperBound(b), latencyMax.get());
+            }
+        }
+        return latencyMax.get();
+    }
+
+    static int latencyBucket(long value) {
+        if(value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int bucket) {
+        if(bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        int subBucket = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    static int lengthBucket(int length) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(length);
+    }
+
+    private static LongAdder[] adders(int size) {
+        var adders = new LongAdder[size];
+        for(int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long[] snapshot(LongAdder[] adders) {
+        var counts = new long[adders.length];
+        for(int i = 0; i < adders.length; i++) {
+            counts[i] = adders[i].sum();
+        }
+        return counts;
+    }
+
+}
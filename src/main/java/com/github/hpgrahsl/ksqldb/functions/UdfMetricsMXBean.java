@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+/**
+ * Management interface of the per-UDF metrics which are registered under the
+ * {@value UdfMetrics#JMX_DOMAIN} domain when metrics are enabled.
+ */
+public interface UdfMetricsMXBean {
+
+    String getUdfName();
+
+    long getInvocations();
+
+    long getNullInputs();
+
+    long getInvalidModes();
+
+    long getRecordedInvocations();
+
+    long getEmojiHits();
+
+    double getEmojiHitRatio();
+
+    double getMeanInputLength();
+
+    /**
+     * Number of recorded inputs per length bucket where bucket i holds lengths in [2^(i-1), 2^i).
+     */
+    long[] getInputLengthHistogram();
+
+    double getMeanLatencyNanos();
+
+    long getLatencyNanosP50();
+
+    long getLatencyNanosP90();
+
+    long getLatencyNanosP99();
+
+    long getLatencyNanosP999();
+
+    long getMaxLatencyNanos();
+
+    void reset();
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import io.confluent.ksql.function.udf.UdfParameter;
+import io.confluent.ksql.function.udtf.Udtf;
+import io.confluent.ksql.function.udtf.UdtfDescription;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+@UdtfDescription(
+        name = "emojis_counts",
+        description = "emits one row per distinct emoji contained in strings in order of first occurrence, holding the emoji, its count and the char offset of its first occurrence",
+        author = "Hans-Peter Grahsl (follow @hpgrahsl)",
+        version = "1.0.0"
+)
+public class UdtfEmojisCounts {
+
+    static final String EMOJI_COUNT_SCHEMA_DESCRIPTOR = "STRUCT<"
+            + "EMOJI VARCHAR, "
+            + "EMOJI_COUNT INT, "
+            + "FIRST_OFFSET INT"
+            + ">";
+
+    static final Schema EMOJI_COUNT_SCHEMA = SchemaBuilder.struct().optional()
+            .field("EMOJI", Schema.OPTIONAL_STRING_SCHEMA)
+            .field("EMOJI_COUNT", Schema.OPTIONAL_INT32_SCHEMA)
+            .field("FIRST_OFFSET", Schema.OPTIONAL_INT32_SCHEMA)
+            .build();
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UdtfEmojisCounts.class);
+
+    private static final UdfDiagnostics DIAGNOSTICS = UdfDiagnostics.of("emojis_counts", LOGGER);
+
+    private static final UdfMetrics METRICS = UdfMetrics.of(DIAGNOSTICS);
+
+    private static final EmojiScanner SCANNER = EmojiScanner.getDefault();
+
+    @Udtf(description = "emits one row per distinct emoji contained in the given string in order of first occurrence, "
+            + "holding the emoji, how often it occurs and the char offset of its first occurrence",
+            schema = EMOJI_COUNT_SCHEMA_DESCRIPTOR)
+    public List<Struct> countEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to count each distinct emoji")
+            final String text) {
+        return countEmojis(text, false);
+    }
+
+    @Udtf(description = "emits one row per distinct emoji contained in the given string in order of first occurrence, "
+            + "holding the emoji, how often it occurs and the char offset of its first occurrence, "
+            + "optionally counting skin tone and presentation variants of an emoji as their base emoji",
+            schema = EMOJI_COUNT_SCHEMA_DESCRIPTOR)
+    public List<Struct> countEmojis(
+            @UdfParameter(value = "text", description = "the given text in which to count each distinct emoji")
+            final String text,
+            @UdfParameter(value = "normalize", description = "if true will fold Fitzpatrick modifiers and variation selectors, i.e. count base emojis, gender and hair components are kept unless the text is normalized with EMOJIS_NORMALIZE first")
+            final boolean normalize) {
+
+        DIAGNOSTICS.invocation();
+
+        //a table function emits no rows rather than a null row
+        if(text == null) {
+            DIAGNOSTICS.nullInput();
+            return Collections.emptyList();
+        }
+
+        long start = METRICS.start();
+        var normalizer = normalize ? EmojiNormalizer.getDefault(false, false) : null;
+        var tally = SCANNER.tally(text, normalizer);
+        var emojis = tally.distinct();
+        var result = new ArrayList<Struct>(emojis.size());
+        for(int i = 0; i < emojis.size(); i++) {
+            result.add(new Struct(EMOJI_COUNT_SCHEMA)
+                    .put("EMOJI", emojis.get(i))
+                    .put("EMOJI_COUNT", tally.count(i))
+                    .put("FIRST_OFFSET", tally.firstOffset(i)));
+        }
+        METRICS.record(start, text.length(), !result.isEmpty());
+        return result;
+
+    }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Project-owned emoji data parsed from the Unicode {@code emoji-test.txt} files, which list every
+ * RGI emoji sequence (incl. ZWJ, keycap, flag and tag sequences) together with its qualification
+ * status, group, subgroup and CLDR short name.
+ * <p>
+ * Which data is used is selected with the system property {@value #DATA_VERSION_PROPERTY}. The
+ * default {@value #EMOJI_JAVA} keeps the data set and behaviour of emoji-java, any other value is
+ * treated as Unicode emoji version whose file is expected as class path resource
+ * {@code unicode/emoji-test-<version>.txt} next to this class. The file of version
+ * {@value #BUNDLED_VERSION} is shipped with the jar.
+ */
+final class UnicodeEmojiData {
+
+    static final String DATA_VERSION_PROPERTY = "emoji.functions.data.version";
+    static final String EMOJI_JAVA = "emoji-java";
+    static final String BUNDLED_VERSION = "15.1";
+
+    static final String STATUS_COMPONENT = "component";
+    static final String STATUS_FULLY_QUALIFIED = "fully-qualified";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UnicodeEmojiData.class);
+
+    private static final int FITZPATRICK_FIRST = 0x1F3FB;
+    private static final int FITZPATRICK_LAST = 0x1F3FF;
+
+    private final List<Entry> entries;
+
+    private UnicodeEmojiData(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    static String resourceName(String version) {
+        return "unicode/emoji-test-" + version + ".txt";
+    }
+
+    /**
+     * Loads the emoji-test.txt of the given Unicode emoji version from the class path.
+     */
+    static UnicodeEmojiData load(String version) throws IOException {
+        var in = UnicodeEmojiData.class.getResourceAsStream(resourceName(version));
+        if(in == null) {
+            throw new IOException("missing emoji data resource " + resourceName(version));
+        }
+        try(var reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    /**
+     * Returns the data of the configured version, or {@code null} if the emoji-java data is configured
+     * or the configured file cannot be loaded. The file is parsed only once and shared by the emoji
+     * table and the emoji attributes.
+     */
+    static UnicodeEmojiData configured() {
+        return ConfiguredHolder.DATA;
+    }
+
+    /**
+     * Returns the data of the configured version or else the one of {@value #BUNDLED_VERSION} which is shipped
+     * with the jar, so that Unicode groups and subgroups are also known for the emoji-java data. Returns
+     * {@code null} only if neither can be loaded. The bundled data is not retained but parsed on every call.
+     */
+    static UnicodeEmojiData configuredOrBundled() {
+        if(configured() != null) {
+            return configured();
+        }
+        try {
+            return load(BUNDLED_VERSION);
+        } catch(IOException | IllegalArgumentException exc) {
+            LOGGER.error("could not load the bundled Unicode emoji data version '"+BUNDLED_VERSION+"', emoji groups and subgroups are unknown", exc);
+            return null;
+        }
+    }
+
+    private static UnicodeEmojiData loadConfigured() {
+        var version = System.getProperty(DATA_VERSION_PROPERTY, EMOJI_JAVA);
+        if(EMOJI_JAVA.equals(version)) {
+            return null;
+        }
+        try {
+            return load(version);
+        } catch(IOException | IllegalArgumentException exc) {
+            LOGGER.error("could not load Unicode emoji data version '"+version+"', falling back to emoji-java data", exc);
+            return null;
+        }
+    }
+
+    static UnicodeEmojiData parse(Reader reader) throws IOException {
+        var entries = new ArrayList<Entry>();
+        var lines = new BufferedReader(reader);
+        String group = "";
+        String subgroup = "";
+        int lineNumber = 0;
+        for(String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            line = line.trim();
+            if(line.startsWith("# group:")) {
+                group = line.substring("# group:".length()).trim();
+            } else if(line.startsWith("# subgroup:")) {
+                subgroup = line.substring("# subgroup:".length()).trim();
+            } else if(!line.isEmpty() && !line.startsWith("#")) {
+                entries.add(parseEntry(line, lineNumber, group, subgroup));
+            }
+        }
+        return new UnicodeEmojiData(entries);
+    }
+
+    List<Entry> entries() {
+        return entries;
+    }
+
+    /**
+     * Builds an emoji table from all but the component entries. Sequences which only add a single
+     * trailing skin tone modifier to another entry are folded into that entry, which then supports
+     * Fitzpatrick modifiers, so that skin tones are handled the same way as for the emoji-java data.
+     * <p>
+     * Minimally-qualified and unqualified forms share the CLDR name and hence the aliases of their
+     * fully-qualified form. All fully-qualified entries get the lowest ids, so that every alias is assigned to
+     * the fully-qualified form when aliases are decoded, while the other forms are written with that alias.
+     */
+    EmojiTable toTable() {
+        var emojis = new LinkedHashMap<String, Entry>();
+        for(Entry entry : entries) {
+            if(STATUS_FULLY_QUALIFIED.equals(entry.status)) {
+                emojis.putIfAbsent(entry.unicode, entry);
+            }
+        }
+        for(Entry entry : entries) {
+            if(!STATUS_COMPONENT.equals(entry.status)) {
+                emojis.putIfAbsent(entry.unicode, entry);
+            }
+        }
+        var fitzpatrickBases = new HashSet<String>();
+        var folded = new ArrayList<String>();
+        for(String unicode : emojis.keySet()) {
+            var base = baseOfSkinToneVariant(unicode);
+            if(base != null && emojis.containsKey(base)) {
+                fitzpatrickBases.add(base);
+                folded.add(unicode);
+            }
+        }
+        folded.forEach(emojis::remove);
+
+        int size = emojis.size();
+        var unicodes = new String[size];
+        var supportsFitzpatrick = new boolean[size];
+        var aliases = new ArrayList<List<String>>(size);
+        var names = new String[size];
+        var tags = new ArrayList<List<String>>(size);
+        int id = 0;
+        for(Entry entry : emojis.values()) {
+            unicodes[id] = entry.unicode;
+            supportsFitzpatrick[id] = fitzpatrickBases.contains(entry.unicode);
+            var emoji = emojiJavaEmoji(entry.unicode);
+            var emojiAliases = new ArrayList<String>();
+            emojiAliases.add(entry.alias());
+            if(emoji != null) {
+                emoji.getAliases().stream().filter(alias -> !emojiAliases.contains(alias)).forEach(emojiAliases::add);
+            }
+            aliases.add(emojiAliases);
+            names[id] = entry.name;
+            tags.add(emoji != null ? emoji.getTags() : Collections.emptyList());
+            id++;
+        }
+        return EmojiTable.of(unicodes, supportsFitzpatrick, aliases, names, tags);
+    }
+
+    private static Entry parseEntry(String line, int lineNumber, String group, String subgroup) {
+        int semicolon = line.indexOf(';');
+        int hash = line.indexOf('#', semicolon + 1);
+        if(semicolon < 0 || hash < 0) {
+            throw new IllegalArgumentException("invalid emoji data in line " + lineNumber + ": " + line);
+        }
+        var sb = new StringBuilder();
+        for(String codepoint : line.substring(0, semicolon).trim().split("\\s+")) {
+            sb.appendCodePoint(Integer.parseInt(codepoint, 16));
+        }
+        var status = line.substring(semicolon + 1, hash).trim();
+        //the comment is "<emoji> E<version> <name>"
+        var comment = line.substring(hash + 1).trim().split("\\s+", 3);
+        var name = comment.length == 3 ? comment[2] : "";
+        return new Entry(sb.toString(), status, name, group, subgroup);
+    }
+
+    private static String baseOfSkinToneVariant(String unicode) {
+        int last = unicode.codePointBefore(unicode.length());
+        if(last < FITZPATRICK_FIRST || last > FITZPATRICK_LAST) {
+            return null;
+        }
+        var base = unicode.substring(0, unicode.length() - Character.charCount(last));
+        return !base.isEmpty() && base.codePoints().noneMatch(cp -> cp >= FITZPATRICK_FIRST && cp <= FITZPATRICK_LAST)
+                ? base : null;
+    }
+
+    /**
+     * The Unicode data has no tags and only names, so the tags and further aliases of the matching
+     * emoji-java emoji are used if there is any.
+     */
+    private static Emoji emojiJavaEmoji(String unicode) {
+        var emoji = EmojiManager.getByUnicode(unicode);
+        if(emoji == null && unicode.indexOf('\uFE0F') >= 0) {
+            emoji = EmojiManager.getByUnicode(unicode.replace("\uFE0F", ""));
+        }
+        return emoji;
+    }
+
+    static final class Entry {
+
+        final String unicode;
+        final String status;
+        final String name;
+        final String group;
+        final String subgroup;
+
+        Entry(String unicode, String status, String name, String group, String subgroup) {
+            this.unicode = unicode;
+            this.status = status;
+            this.name = name;
+            this.group = group;
+            this.subgroup = subgroup;
+        }
+
+        /**
+         * Derives an alias from the CLDR short name, e.g. "flag: Åland Islands" becomes "flag_aland_islands".
+         */
+        String alias() {
+            var ascii = Normalizer.normalize(name, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+            var alias = ascii.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "_");
+            return alias.replaceAll("^_+|_+$", "");
+        }
+
+    }
+
+    private static final class ConfiguredHolder {
+        static final UnicodeEmojiData DATA = loadConfigured();
+    }
+
+}
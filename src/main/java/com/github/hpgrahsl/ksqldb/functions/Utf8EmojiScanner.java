@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Emoji scanner which runs directly on UTF-8 encoded bytes so that text does not have to be decoded into
+ * a String first. All emoji sequences of an {@link EmojiTable} are compiled into a byte trie (a DFA over
+ * their UTF-8 encodings) and matches follow exactly the semantics of {@link EmojiScanner}, i.e. longest
+ * match at each codepoint and a directly following Fitzpatrick modifier is always consumed.
+ * <p>
+ * Matches are packed like the ones of {@link EmojiScanner} except that start positions are byte offsets
+ * relative to the buffer's position.
+ */
+final class Utf8EmojiScanner {
+
+    static final long NO_MATCH = EmojiScanner.NO_MATCH;
+
+    //UTF-8 encoding of the Fitzpatrick modifiers U+1F3FB..U+1F3FF is F0 9F 8F BB..BF
+    private static final int FITZPATRICK_BYTES = 4;
+    private static final int FITZPATRICK_FIRST_LAST_BYTE = 0xBB;
+
+    private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[64]);
+
+    private static final int[] NO_VARIANTS = new int[0];
+
+    private final EmojiTable table;
+    private final ThreadLocal<VariantSet> seen;
+    private final EmojiSequence empty;
+    private final int[] utf8Lengths;
+    private final long[] startBytes = new long[4];
+
+    //byte trie in compressed sparse row layout just like the codepoint trie of the EmojiTable
+    private final int[] edgeOffsets;
+    private final byte[] edgeBytes;
+    private final int[] edgeTargets;
+    private final int[] nodeEmojiIds;
+
+    Utf8EmojiScanner(EmojiTable table) {
+        this.table = table;
+        this.seen = ThreadLocal.withInitial(() -> new VariantSet(table));
+        this.empty = new EmojiSequence(table, NO_VARIANTS);
+        this.utf8Lengths = new int[table.size()];
+        var root = new ByteTrieNode();
+        int nodeCount = 1;
+        var unicode = new StringBuilder();
+        for(int id = 0; id < table.size(); id++) {
+            unicode.setLength(0);
+            table.appendUnicode(unicode, id, EmojiTable.NO_FITZPATRICK);
+            byte[] utf8 = unicode.toString().getBytes(StandardCharsets.UTF_8);
+            utf8Lengths[id] = utf8.length;
+            startBytes[(utf8[0] & 0xFF) >>> 6] |= 1L << (utf8[0] & 0xFF);
+            var node = root;
+            for(byte b : utf8) {
+                var child = node.children.get(b & 0xFF);
+                if(child == null) {
+                    child = new ByteTrieNode();
+                    node.children.put(b & 0xFF, child);
+                    nodeCount++;
+                }
+                node = child;
+            }
+            node.emojiId = id;
+        }
+
+        edgeOffsets = new int[nodeCount + 1];
+        edgeBytes = new byte[nodeCount - 1];
+        edgeTargets = new int[nodeCount - 1];
+        nodeEmojiIds = new int[nodeCount];
+        var queue = new ArrayDeque<ByteTrieNode>();
+        queue.add(root);
+        int nextIndex = 1;
+        int edge = 0;
+        while(!queue.isEmpty()) {
+            var node = queue.poll();
+            nodeEmojiIds[node.index] = node.emojiId;
+            edgeOffsets[node.index] = edge;
+            for(Map.Entry<Integer, ByteTrieNode> e : node.children.entrySet()) {
+                var child = e.getValue();
+                child.index = nextIndex++;
+                edgeBytes[edge] = (byte) (int) e.getKey();
+                edgeTargets[edge] = child.index;
+                edge++;
+                queue.add(child);
+            }
+        }
+        edgeOffsets[nodeCount] = edge;
+    }
+
+    static Utf8EmojiScanner getDefault() {
+        return DefaultHolder.DEFAULT;
+    }
+
+    /**
+     * Returns the next emoji occurrence at or after the given byte offset or {@link #NO_MATCH}.
+     */
+    long next(ByteBuffer utf8, int from) {
+        int base = utf8.position();
+        int limit = utf8.limit();
+        for(int i = nextCandidate(utf8, base + from, limit); i < limit; i = nextCandidate(utf8, i + 1, limit)) {
+            int id = matchAt(utf8, i, limit);
+            if(id != EmojiTable.NO_EMOJI) {
+                int end = i + utf8Lengths[id];
+                return pack(i - base, id, fitzpatrickAt(utf8, end, limit));
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /**
+     * Returns the index of the next byte which may start an emoji or the limit. Continuation bytes never
+     * start a codepoint and are skipped right away like all other bytes which start no emoji.
+     */
+    private int nextCandidate(ByteBuffer utf8, int from, int limit) {
+        if(utf8.hasArray()) {
+            //heap buffers are skipped over their backing array which avoids per byte bounds checks of the buffer
+            byte[] bytes = utf8.array();
+            int offset = utf8.arrayOffset();
+            for(int i = offset + from; i < offset + limit; i++) {
+                int b = bytes[i] & 0xFF;
+                if((startBytes[b >>> 6] & (1L << b)) != 0) {
+                    return i - offset;
+                }
+            }
+            return limit;
+        }
+        for(int i = from; i < limit; i++) {
+            int b = utf8.get(i) & 0xFF;
+            if((startBytes[b >>> 6] & (1L << b)) != 0) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the byte offset right after the occurrence including a consumed Fitzpatrick modifier.
+     */
+    int end(long match) {
+        return EmojiScanner.start(match) + utf8Lengths[EmojiScanner.emojiId(match)]
+                + (EmojiScanner.fitzpatrick(match) != EmojiTable.NO_FITZPATRICK ? FITZPATRICK_BYTES : 0);
+    }
+
+    String emoji(long match) {
+        return table.unicode(EmojiScanner.emojiId(match), EmojiScanner.fitzpatrick(match));
+    }
+
+    boolean contains(ByteBuffer utf8) {
+        return next(utf8, 0) != NO_MATCH;
+    }
+
+    int count(ByteBuffer utf8) {
+        int count = 0;
+        for(long m = next(utf8, 0); m != NO_MATCH; m = next(utf8, end(m))) {
+            count++;
+        }
+        return count;
+    }
+
+    int countUnique(ByteBuffer utf8) {
+        long m = next(utf8, 0);
+        if(m == NO_MATCH) {
+            return 0;
+        }
+        var unique = seen.get();
+        unique.clear();
+        int count = 0;
+        for(; m != NO_MATCH; m = next(utf8, end(m))) {
+            if(unique.add(variant(m))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    EmojiSequence extract(ByteBuffer utf8, boolean unique) {
+        long m = next(utf8, 0);
+        if(m == NO_MATCH) {
+            return empty;
+        }
+        var variants = SCRATCH.get();
+        var distinct = seen.get();
+        distinct.clear();
+        int size = 0;
+        for(; m != NO_MATCH; m = next(utf8, end(m))) {
+            int variant = variant(m);
+            if(unique && !distinct.add(variant)) {
+                continue;
+            }
+            if(size == variants.length) {
+                variants = Arrays.copyOf(variants, size * 2);
+                SCRATCH.set(variants);
+            }
+            variants[size++] = variant;
+        }
+        return new EmojiSequence(table, Arrays.copyOf(variants, size));
+    }
+
+    private int variant(long match) {
+        int id = EmojiScanner.emojiId(match);
+        return EmojiScanner.variant(id,
+                table.supportsFitzpatrick(id) ? EmojiScanner.fitzpatrick(match) : EmojiTable.NO_FITZPATRICK);
+    }
+
+    private int matchAt(ByteBuffer utf8, int index, int limit) {
+        int node = 0;
+        int best = EmojiTable.NO_EMOJI;
+        for(int i = index; i < limit; i++) {
+            node = child(node, utf8.get(i));
+            if(node < 0) {
+                break;
+            }
+            if(nodeEmojiIds[node] != EmojiTable.NO_EMOJI) {
+                best = nodeEmojiIds[node];
+            }
+        }
+        return best;
+    }
+
+    private int child(int node, byte b) {
+        //edge labels are sorted as unsigned values
+        int low = edgeOffsets[node];
+        int high = edgeOffsets[node + 1] - 1;
+        int key = b & 0xFF;
+        while(low <= high) {
+            int mid = (low + high) >>> 1;
+            int label = edgeBytes[mid] & 0xFF;
+            if(label < key) {
+                low = mid + 1;
+            } else if(label > key) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static int fitzpatrickAt(ByteBuffer utf8, int index, int limit) {
+        if(index + FITZPATRICK_BYTES > limit
+                || utf8.get(index) != (byte) 0xF0
+                || utf8.get(index + 1) != (byte) 0x9F
+                || utf8.get(index + 2) != (byte) 0x8F) {
+            return EmojiTable.NO_FITZPATRICK;
+        }
+        int type = (utf8.get(index + 3) & 0xFF) - FITZPATRICK_FIRST_LAST_BYTE;
+        return type >= 0 && type < EmojiTable.FITZPATRICK_TYPES ? type : EmojiTable.NO_FITZPATRICK;
+    }
+
+    private static long pack(int start, int id, int fitzpatrick) {
+        return ((long) start << 32) | ((long) (fitzpatrick + 1) << 24) | id;
+    }
+
+    private static final class ByteTrieNode {
+        final Map<Integer, ByteTrieNode> children = new TreeMap<>();
+        int emojiId = EmojiTable.NO_EMOJI;
+        int index;
+    }
+
+    //the byte trie is only built once the byte level API is used for the first time
+    private static final class DefaultHolder {
+        static final Utf8EmojiScanner DEFAULT = new Utf8EmojiScanner(EmojiTable.getDefault());
+    }
+
+}
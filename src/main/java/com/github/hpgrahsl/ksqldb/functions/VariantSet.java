@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import java.util.Arrays;
+
+/**
+ * Reusable set of emoji variant keys (see {@link EmojiScanner#variant(int, int)}) backed by an array of
+ * generation stamps, so that both lookups and clearing the set take constant time without allocations.
+ * Instances are not thread-safe and meant to be kept per thread.
+ */
+final class VariantSet {
+
+    private final int[] stamps;
+    private int generation = 1;
+
+    VariantSet(EmojiTable table) {
+        this.stamps = new int[table.size() * (EmojiTable.FITZPATRICK_TYPES + 1)];
+    }
+
+    void clear() {
+        if(++generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    /**
+     * Returns true if the variant was not contained in the set before.
+     */
+    boolean add(int variant) {
+        if(stamps[variant] == generation) {
+            return false;
+        }
+        stamps[variant] = generation;
+        return true;
+    }
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class DistinctReporterTests {
+
+  @Test
+  @DisplayName("every distinct value is reported once no matter how often it occurs")
+  void reportDistinctValuesOnce() {
+    var reported = new ArrayList<List<String>>();
+    var reporter = new DistinctReporter<List<String>>(reported::add);
+    for (int row = 0; row < 1_000; row++) {
+      reporter.report(List.of("no emoji"));
+      reporter.report(new ArrayList<>(List.of("no emoji", "")));
+    }
+    assertEquals(List.of(List.of("no emoji"), List.of("no emoji", "")), reported);
+  }
+
+  @Test
+  @DisplayName("reports beyond the bounded number of remembered values are rate limited")
+  void reportBoundedNumberOfValues() {
+    var reported = new ArrayList<Integer>();
+    var reporter = new DistinctReporter<Integer>(reported::add);
+    for (int row = 0; row < 10_000; row++) {
+      reporter.report(row % 1_000);
+    }
+    //all remembered values plus a single overflow report within the first minute
+    assertEquals(DistinctReporter.MAX_SIZE + 1, reported.size());
+  }
+
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+public class EmojiBatchProcessorTests {
+
+  @Test
+  @DisplayName("batch results are equal to applying the UDFs to every single text")
+  void batchResultsMatchUdfs() {
+    var texts = randomTexts(5_000);
+    var pool = new ForkJoinPool(4);
+    try {
+      var processor = new EmojiBatchProcessor(pool, 100);
+      for (boolean unique : new boolean[] {false, true}) {
+        var counts = processor.count(texts, unique);
+        var extracted = processor.extract(texts, unique);
+        assertEquals(texts.length, extracted.size());
+        for (int i = 0; i < texts.length; i++) {
+          var expected = new UdfEmojisExtract().extractEmojis(texts[i], unique);
+          assertEquals(texts[i] == null ? -1 : new UdfEmojisCount().countEmojis(texts[i], unique).intValue(), counts[i], "count mismatch for " + texts[i]);
+          assertIterableEquals(expected != null ? expected : List.of(), extracted.emojisOf(i), "extract mismatch for " + texts[i]);
+        }
+      }
+      var contains = processor.contains(texts);
+      for (int i = 0; i < texts.length; i++) {
+        assertEquals(Boolean.TRUE.equals(new UdfEmojisContained().containsEmojis(texts[i])), contains.get(i), "contains mismatch for " + texts[i]);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("array, list and stream inputs yield the same results")
+  void inputTypesYieldSameResults() {
+    var texts = randomTexts(1_000);
+    var processor = new EmojiBatchProcessor();
+    var counts = processor.count(texts, false);
+    assertArrayEquals(counts, processor.count(Arrays.asList(texts), false));
+    assertArrayEquals(counts, processor.count(Arrays.stream(texts), false));
+    assertEquals(processor.contains(texts), processor.contains(Arrays.asList(texts)));
+    assertEquals(processor.contains(texts), processor.contains(Arrays.stream(texts)));
+    var extracted = processor.extract(texts, true);
+    assertArrayEquals(extracted.emojis(), processor.extract(Arrays.asList(texts), true).emojis());
+    assertArrayEquals(extracted.offsets(), processor.extract(Arrays.stream(texts), true).offsets());
+  }
+
+  @Test
+  @DisplayName("streams spanning several windows and sequential lists yield the same results as arrays")
+  void windowedStreamsAndSequentialLists() {
+    var texts = randomTexts(5_000);
+    var pool = new ForkJoinPool(2);
+    try {
+      var processor = new EmojiBatchProcessor(pool, 64);
+      for (boolean unique : new boolean[] {false, true}) {
+        var counts = processor.count(texts, unique);
+        assertArrayEquals(counts, processor.count(Arrays.stream(texts), unique));
+        assertArrayEquals(counts, processor.count(new LinkedList<>(Arrays.asList(texts)), unique));
+        var extracted = processor.extract(texts, unique);
+        var streamed = processor.extract(Arrays.stream(texts), unique);
+        assertArrayEquals(extracted.emojis(), streamed.emojis());
+        assertArrayEquals(extracted.offsets(), streamed.offsets());
+        assertArrayEquals(extracted.offsets(), processor.extract(new LinkedList<>(Arrays.asList(texts)), unique).offsets());
+      }
+      assertEquals(processor.contains(texts), processor.contains(Arrays.stream(texts)));
+      assertEquals(processor.contains(texts), processor.contains(new LinkedList<>(Arrays.asList(texts))));
+      assertEquals(0, processor.extract(Stream.<String>empty(), false).size());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  @DisplayName("empty batches yield empty results")
+  void emptyBatch() {
+    var processor = new EmojiBatchProcessor();
+    assertEquals(0, processor.count(new String[0], false).length);
+    assertEquals(0, processor.contains(List.of()).cardinality());
+    var extracted = processor.extract(new String[0], false);
+    assertEquals(0, extracted.size());
+    assertEquals(0, extracted.emojis().length);
+  }
+
+  private static String[] randomTexts(int size) {
+    var random = new Random(7);
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    var texts = new String[size];
+    for (int i = 0; i < size; i++) {
+      if (random.nextInt(50) == 0) {
+        continue;
+      }
+      var sb = new StringBuilder();
+      for (int j = random.nextInt(10); j >= 0; j--) {
+        switch (random.nextInt(4)) {
+          case 0:
+            sb.append(emojis.get(random.nextInt(emojis.size())).getUnicode());
+            break;
+          case 1:
+            sb.append(emojis.get(random.nextInt(8)).getUnicode());
+            break;
+          case 2:
+            sb.append(Fitzpatrick.values()[random.nextInt(Fitzpatrick.values().length)].unicode);
+            break;
+          default:
+            sb.append("some text ");
+        }
+      }
+      texts[i] = sb.toString();
+    }
+    return texts;
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.EmojiParser;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EmojiScannerTests {
+
+  private static final String[] FILLERS = {"", " ", "abc", "1", "#", "\u200D", "\uFE0F", "\u20E3", "\uD83C", "日本語"};
+
+  @Test
+  @DisplayName("scanning every single emoji with and without fitzpatrick modifiers matches emoji-java")
+  void scanAllEmojis() {
+    for (Emoji emoji : EmojiManager.getAll()) {
+      assertSameAsEmojiJava("x" + emoji.getUnicode() + "y");
+      for (Fitzpatrick fp : Fitzpatrick.values()) {
+        assertSameAsEmojiJava(emoji.getUnicode() + fp.unicode + " " + emoji.getUnicode());
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("scanning random mixtures of emojis, fragments and text matches emoji-java")
+  void scanRandomTexts() {
+    var random = new Random(42);
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    for (int i = 0; i < 2000; i++) {
+      var sb = new StringBuilder();
+      for (int j = random.nextInt(12); j >= 0; j--) {
+        if (random.nextBoolean()) {
+          sb.append(emojis.get(random.nextInt(emojis.size())).getUnicode());
+        } else if (random.nextInt(4) == 0) {
+          sb.append(Fitzpatrick.values()[random.nextInt(Fitzpatrick.values().length)].unicode);
+        } else {
+          sb.append(FILLERS[random.nextInt(FILLERS.length)]);
+        }
+      }
+      assertSameAsEmojiJava(sb.toString());
+    }
+  }
+
+  @Test
+  @DisplayName("the binary emoji index round-trips to a table equal to the one built from emoji-java")
+  void binaryIndexRoundTrip() throws IOException {
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    var built = EmojiTable.of(emojis);
+    var out = new ByteArrayOutputStream();
+    built.writeTo(out);
+    var loaded = EmojiTable.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(built.size(), loaded.size());
+    for (int id = 0; id < built.size(); id++) {
+      var unicode = built.unicode(id);
+      assertEquals(unicode, loaded.unicode(id));
+      assertEquals(id, loaded.idOf(unicode));
+      assertEquals(built.supportsFitzpatrick(id), loaded.supportsFitzpatrick(id));
+      assertEquals(built.alias(id), loaded.alias(id));
+      assertEquals(built.htmlDecimal(id), loaded.htmlDecimal(id));
+      assertEquals(built.htmlHexadecimal(id), loaded.htmlHexadecimal(id));
+      assertEquals(emojis.get(id).getHtmlDecimal(), loaded.htmlDecimal(id));
+      assertEquals(emojis.get(id).getHtmlHexadecimal(), loaded.htmlHexadecimal(id));
+      assertEquals(emojis.get(id).getAliases().get(0), loaded.alias(id));
+      assertEquals(emojis.get(id).getDescription(), loaded.name(id));
+      assertEquals(emojis.get(id).getTags(), loaded.tags(id));
+      assertTrue(loaded.mayStartEmoji(unicode.charAt(0)));
+    }
+    assertEquals(built.size(), EmojiTable.getDefault().size());
+  }
+
+  private static void assertSameAsEmojiJava(String text) {
+    var scanner = EmojiScanner.getDefault();
+    List<String> expected = EmojiParser.extractEmojis(text);
+    assertIterableEquals(expected, scanner.extract(text, false), "extract mismatch for " + text);
+    assertEquals(expected.size(), scanner.count(text), "count mismatch for " + text);
+    assertEquals(EmojiManager.containsEmoji(text), scanner.contains(text), "contains mismatch for " + text);
+    assertEquals(EmojiParser.removeAllEmojis(text), scanner.remove(text), "remove mismatch for " + text);
+    var utf8 = Utf8EmojiScanner.getDefault();
+    var bytes = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    if (StandardCharsets.UTF_8.decode(bytes.duplicate()).toString().equals(text)) {
+      assertIterableEquals(expected, utf8.extract(bytes, false), "utf8 extract mismatch for " + text);
+      assertIterableEquals(scanner.extract(text, true), utf8.extract(bytes, true), "utf8 unique extract mismatch for " + text);
+      assertEquals(expected.size(), utf8.count(bytes), "utf8 count mismatch for " + text);
+      assertEquals(scanner.countUnique(text), utf8.countUnique(bytes), "utf8 unique count mismatch for " + text);
+      assertEquals(scanner.contains(text), utf8.contains(bytes), "utf8 contains mismatch for " + text);
+    }
+    for (EmojiParser.FitzpatrickAction action : EmojiParser.FitzpatrickAction.values()) {
+      assertEquals(EmojiParser.parseToAliases(text, action),
+          new UdfEmojisToAliases().replaceEmojisWithAliases(text, action.name()), "aliases mismatch for " + text);
+      assertEquals(EmojiParser.parseToHtmlDecimal(text, action),
+          new UdfEmojisToHtmlCodepoints().replaceEmojisWithCodepoints(text, action.name(), "DEC"), "html dec mismatch for " + text);
+      assertEquals(EmojiParser.parseToHtmlHexadecimal(text, action),
+          new UdfEmojisToHtmlCodepoints().replaceEmojisWithCodepoints(text, action.name(), "HEX"), "html hex mismatch for " + text);
+    }
+  }
+
+}
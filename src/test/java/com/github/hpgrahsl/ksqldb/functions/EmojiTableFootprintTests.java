@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.github.hpgrahsl.ksqldb.functions.util.HeapHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Method;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class EmojiTableFootprintTests {
+
+  @Test
+  @DisplayName("the emoji table retains far less heap per class loader than emoji-java's emoji data")
+  void retainedHeapPerClassLoader() throws Exception {
+    assumeTrue(HeapHistogram.isSupported(), "class histogram not available");
+    long emojiJava = retainedBytes("com.vdurmont.emoji.EmojiManager", "getAll");
+    long table = retainedBytes(EmojiTable.class.getName(), "getDefault");
+    long attributes = retainedBytes(EmojiAttributes.class.getName(), "getDefault");
+    assertTrue(table * 3 < emojiJava, "emoji table is not compact: " + table + " vs " + emojiJava);
+    assertTrue(attributes * 2 < emojiJava, "emoji attributes are not compact: " + attributes + " vs " + emojiJava);
+  }
+
+  /**
+   * Loads the data by calling the given static method in a fresh class loader and returns the live heap it retains.
+   */
+  private static long retainedBytes(String className, String methodName) throws Exception {
+    long before = HeapHistogram.liveBytes();
+    var loader = HeapHistogram.isolatedClassLoader();
+    Method method = Class.forName(className, true, loader).getDeclaredMethod(methodName);
+    method.setAccessible(true);
+    var data = method.invoke(null);
+    long after = HeapHistogram.liveBytes();
+    Reference.reachabilityFence(data);
+    Reference.reachabilityFence(loader);
+    return after - before;
+  }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ModeCacheTests {
+
+  private enum Mode { PARSE, REMOVE }
+
+  @Test
+  @DisplayName("every distinct invalid mode is resolved and reported exactly once")
+  void reportInvalidModesOnce() {
+    var resolutions = new AtomicInteger();
+    var reported = new ArrayList<String>();
+    var cache = new ModeCache<Mode>(mode -> {
+      resolutions.incrementAndGet();
+      return ModeCache.enumResolver(Mode.class, true).apply(mode);
+    }, reported::add);
+    for (int row = 0; row < 1_000; row++) {
+      assertSame(Mode.PARSE, cache.get("parse"));
+      assertNull(cache.get("INVALID"));
+      assertNull(cache.get("bogus"));
+    }
+    assertEquals(List.of("INVALID", "bogus"), reported);
+    assertEquals(3, resolutions.get());
+  }
+
+  @Test
+  @DisplayName("invalid modes beyond the cache bound are reported at most once per minute")
+  void reportInvalidModesBeyondBound() {
+    var reported = new ArrayList<String>();
+    var cache = new ModeCache<Mode>(ModeCache.enumResolver(Mode.class, false), reported::add);
+    for (int row = 0; row < 10; row++) {
+      for (int i = 0; i < ModeCache.MAX_SIZE; i++) {
+        assertNull(cache.get("INVALID" + i));
+      }
+    }
+    assertEquals(ModeCache.MAX_SIZE, reported.size());
+    for (int row = 0; row < 10; row++) {
+      for (int i = ModeCache.MAX_SIZE; i < ModeCache.MAX_SIZE * 2; i++) {
+        assertNull(cache.get("INVALID" + i));
+      }
+    }
+    //the cache is full, so only a single overflow report is due within the first minute
+    assertEquals(ModeCache.MAX_SIZE + 1, reported.size());
+    assertEquals("INVALID" + ModeCache.MAX_SIZE, reported.get(ModeCache.MAX_SIZE));
+    //valid modes which don't fit into the cache anymore are still resolved
+    assertSame(Mode.REMOVE, cache.get("REMOVE"));
+  }
+
+}
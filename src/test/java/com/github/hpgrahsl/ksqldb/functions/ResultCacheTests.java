@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ResultCacheTests {
+
+  private static ResultCache<List<String>> extractCache(long maxEntries, long maxChars) {
+    return new ResultCache<>("emojis_cache_test", maxEntries, maxChars,
+        emojis -> emojis.stream().mapToInt(String::length).sum(), Collections::unmodifiableList);
+  }
+
+  @Test
+  @DisplayName("cached results are keyed by input and mode and handed out as immutable views")
+  void cacheResultsPerInputAndMode() {
+    var cache = extractCache(1000, 100_000);
+    var scanner = EmojiScanner.getDefault();
+    var text = "👍 hello 👍 ❤️";
+    assertNull(cache.get(text, true));
+    var unique = cache.put(text, true, scanner.extract(text, true));
+    var all = cache.put(text, false, scanner.extract(text, false));
+    assertSame(unique, cache.get(text, true));
+    assertSame(all, cache.get(text, false));
+    assertEquals(2, unique.size());
+    assertEquals(3, all.size());
+    assertThrows(UnsupportedOperationException.class, () -> unique.add("😀"));
+    assertEquals(2, cache.getHits());
+    assertEquals(1, cache.getMisses());
+  }
+
+  @Test
+  @DisplayName("cache stays within its entry and char bounds")
+  void cacheIsBounded() {
+    var cache = extractCache(64, 2_000);
+    for (int i = 0; i < 10_000; i++) {
+      var text = "👍 " + i;
+      cache.put(text, true, EmojiScanner.getDefault().extract(text, true));
+      assertTrue(cache.getSize() <= 64, "too many entries " + cache.getSize());
+      assertTrue(cache.getRetainedChars() <= 2_000, "too many chars " + cache.getRetainedChars());
+    }
+    assertTrue(cache.getEvictions() > 0);
+    cache.clear();
+    assertEquals(0, cache.getSize());
+    assertEquals(0, cache.getRetainedChars());
+  }
+
+  @Test
+  @DisplayName("small bounds hold for the cache as a whole rather than per segment")
+  void smallBoundsHoldOverall() {
+    for (long maxEntries : new long[] {1, 2, 15, 17, 100, 1_000}) {
+      var cache = extractCache(maxEntries, 1L << 20);
+      for (int i = 0; i < 10_000; i++) {
+        cache.put("text " + i, true, List.of("😀"));
+        assertTrue(cache.getSize() <= maxEntries, "size " + cache.getSize() + " exceeds " + maxEntries);
+      }
+      assertEquals(maxEntries, cache.getSize(), "every entry of the budget is usable");
+    }
+    var cache = extractCache(1_000, 50);
+    for (int i = 0; i < 1_000; i++) {
+      cache.put("text " + i, true, List.of("😀"));
+      assertTrue(cache.getRetainedChars() <= 50, "retained chars " + cache.getRetainedChars() + " exceed 50");
+    }
+  }
+
+  @Test
+  @DisplayName("repeatedly hit entries survive a burst of one-off inputs")
+  void frequentEntriesSurviveBursts() {
+    var cache = extractCache(16 * 10, 1_000_000);
+    var text = "❤️🔥";
+    cache.put(text, false, List.of(text));
+    cache.get(text, false);
+    for (int i = 0; i < 10_000; i++) {
+      cache.put("bot template " + i, false, List.of());
+    }
+    assertEquals(List.of(text), cache.get(text, false));
+  }
+
+  @Test
+  @DisplayName("disabled cache neither stores nor wraps results")
+  void disabledCache() {
+    var cache = extractCache(0, 100_000);
+    assertFalse(cache.isEnabled());
+    var emojis = List.of("👍");
+    assertSame(emojis, cache.put("👍", true, emojis));
+    assertNull(cache.get("👍", true));
+    assertEquals(0, cache.getMisses());
+  }
+
+}
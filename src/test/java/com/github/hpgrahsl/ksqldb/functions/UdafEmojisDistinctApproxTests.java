@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdafEmojisDistinctApproxTests {
+
+  @Test
+  @DisplayName("aggregating rows approximates the number of distinct emojis")
+  void aggregateDistinctEmojis() {
+    var udaf = UdafEmojisDistinctApprox.createEmojisDistinctApprox();
+    var agg = udaf.initialize();
+    assertEquals(0L, (long) udaf.map(agg));
+    agg = udaf.aggregate("👍 great 👍🏽 👍", agg);
+    agg = udaf.aggregate(null, agg);
+    agg = udaf.aggregate("no emojis here", agg);
+    agg = udaf.aggregate("❤️❤️❤️ and 🔥👍", agg);
+    assertEquals(4L, (long) udaf.map(agg));
+    assertEquals(EmojiHyperLogLog.REGISTERS, Base64.getDecoder().decode(agg).length);
+  }
+
+  @Test
+  @DisplayName("rows without emojis leave the serialized sketch untouched")
+  void aggregateRowsWithoutEmojis() {
+    var udaf = UdafEmojisDistinctApprox.createEmojisDistinctApprox();
+    var agg = udaf.aggregate("🔥 on 🔥", udaf.initialize());
+    assertSame(agg, udaf.aggregate("no emojis here", agg));
+    assertSame(agg, udaf.aggregate(null, agg));
+  }
+
+  @Test
+  @DisplayName("estimates stay within a few standard errors for all emoji variants")
+  void estimateAllEmojiVariants() {
+    var udaf = UdafEmojisDistinctApprox.createEmojisDistinctApprox();
+    var agg = udaf.initialize();
+    long distinct = 0;
+    for (var emoji : EmojiManager.getAll()) {
+      var sb = new StringBuilder(emoji.getUnicode()).append(' ');
+      distinct++;
+      if (emoji.supportsFitzpatrick()) {
+        for (Fitzpatrick fp : Fitzpatrick.values()) {
+          sb.append(emoji.getUnicode()).append(fp.unicode).append(' ');
+          distinct++;
+        }
+      }
+      agg = udaf.aggregate(sb.toString(), agg);
+    }
+    long estimate = udaf.map(agg);
+    assertTrue(Math.abs(estimate - distinct) <= distinct * 0.1, "estimate " + estimate + " for " + distinct);
+  }
+
+  @Test
+  @DisplayName("merging sketches equals the sketch of the union")
+  void mergeSketches() {
+    var udaf = UdafEmojisDistinctApprox.createEmojisDistinctApprox();
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    var one = udaf.initialize();
+    var two = udaf.initialize();
+    var union = udaf.initialize();
+    for (int i = 0; i < 600; i++) {
+      var text = emojis.get(i).getUnicode();
+      if (i < 400) {
+        one = udaf.aggregate(text, one);
+      }
+      if (i >= 200) {
+        two = udaf.aggregate(text, two);
+      }
+      union = udaf.aggregate(text, union);
+    }
+    assertEquals(union, udaf.merge(one, two));
+    assertEquals(one, udaf.merge(one, udaf.initialize()));
+    assertEquals(two, udaf.merge(udaf.initialize(), two));
+  }
+
+  @Test
+  @DisplayName("sketches hash emojis found by the scan like their canonical strings")
+  void scanHashesMatchStringHashes() {
+    var scanned = new EmojiHyperLogLog();
+    scanned.addAll("x👍🏽y❤️z");
+    var added = new EmojiHyperLogLog();
+    added.add("👍🏽");
+    added.add("❤");
+    assertEquals(added.serialize(), scanned.serialize());
+  }
+
+}
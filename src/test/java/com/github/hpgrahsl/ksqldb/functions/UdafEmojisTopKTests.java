@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdafEmojisTopKTests {
+
+  @Test
+  @DisplayName("aggregating rows yields exact top emojis while the number of distinct emojis fits")
+  void aggregateExactTopK() {
+    var udaf = UdafEmojisTopK.createEmojisTopK();
+    var agg = udaf.initialize();
+    agg = udaf.aggregate("👍 great 👍🏽 👍", agg);
+    agg = udaf.aggregate(null, agg);
+    agg = udaf.aggregate("no emojis here", agg);
+    agg = udaf.aggregate("❤️❤️❤️ and 🔥", agg);
+    agg = udaf.aggregate("🔥👍", agg);
+    assertEquals(List.of("👍", "❤", "🔥", "👍🏽"), udaf.map(agg));
+    assertEquals("3,0,👍;1,0,👍🏽;3,0,❤;2,0,🔥", agg);
+  }
+
+  @Test
+  @DisplayName("rows without emojis leave the serialized summary untouched")
+  void aggregateRowsWithoutEmojis() {
+    var udaf = UdafEmojisTopK.createEmojisTopK();
+    var agg = udaf.aggregate("🔥 on 🔥", udaf.initialize());
+    assertSame(agg, udaf.aggregate("no emojis here", agg));
+    assertSame(agg, udaf.aggregate(null, agg));
+    var summary = new EmojiTopK(EmojiTopK.DEFAULT_CAPACITY);
+    assertFalse(summary.addAll(EmojiScanner.getDefault(), "no emojis here"));
+    assertTrue(summary.addAll(EmojiScanner.getDefault(), "🔥 on 🔥"));
+    assertEquals(2, summary.count("🔥"));
+  }
+
+  @Test
+  @DisplayName("memory per group stays bounded and heavy hitters survive any cardinality")
+  void aggregateBoundedTopK() {
+    var udaf = UdafEmojisTopK.createEmojisTopK();
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    var agg = udaf.initialize();
+    for (int i = 0; i < emojis.size(); i++) {
+      agg = udaf.aggregate(emojis.get(i).getUnicode() + (i % 3 == 0 ? "🚀" : ""), agg);
+      assertTrue(EmojiTopK.deserialize(agg, EmojiTopK.DEFAULT_CAPACITY).size() <= EmojiTopK.DEFAULT_CAPACITY);
+    }
+    assertEquals("🚀", udaf.map(agg).get(0));
+    assertEquals(UdafEmojisTopK.K, udaf.map(agg).size());
+  }
+
+  @Test
+  @DisplayName("merging aggregates covers the occurrences of both")
+  void mergeTopK() {
+    var udaf = UdafEmojisTopK.createEmojisTopK();
+    var one = udaf.aggregate("😀😀😀 🚀", udaf.initialize());
+    var two = udaf.aggregate("🚀🚀🚀 🎉", udaf.initialize());
+    var merged = udaf.merge(one, two);
+    assertEquals(List.of("🚀", "😀", "🎉"), udaf.map(merged));
+    var summary = EmojiTopK.deserialize(merged, EmojiTopK.DEFAULT_CAPACITY);
+    assertEquals(4, summary.count("🚀"));
+    assertEquals(3, summary.count("😀"));
+    assertEquals(List.of(), udaf.map(udaf.merge(udaf.initialize(), udaf.initialize())));
+  }
+
+  @Test
+  @DisplayName("merging full summaries keeps the estimation error bounded")
+  void mergeFullSummaries() {
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    var one = new EmojiTopK(8);
+    var two = new EmojiTopK(8);
+    for (int i = 0; i < 200; i++) {
+      one.add(emojis.get(i).getUnicode(), 1);
+      two.add(emojis.get(200 + i).getUnicode(), 1);
+      one.add("🚀", 1);
+      two.add("🚀", 1);
+    }
+    var merged = one.merge(two);
+    assertEquals(8, merged.size());
+    assertEquals("🚀", merged.top(1).get(0));
+    assertTrue(merged.count("🚀") >= 400);
+    assertTrue(merged.count("🚀") - merged.error("🚀") <= 400);
+    assertNotNull(EmojiTopK.deserialize(merged.serialize(), 8).top(8));
+  }
+
+  @Test
+  @DisplayName("deserialized emojis are the canonical strings which scanning yields")
+  void deserializeCanonicalEmojis() {
+    var scanner = EmojiScanner.getDefault();
+    var text = "🚀 and 👍🏽";
+    var rocket = scanner.emoji(scanner.next(text, 0));
+    var thumbsUp = scanner.emoji(scanner.next(text, 3));
+    var summary = EmojiTopK.deserialize(new String("2,0,🚀;1,0,👍🏽;1,1,👍🏽🚀;1,1,unknown"), EmojiTopK.DEFAULT_CAPACITY);
+    assertSame(rocket, summary.top(1).get(0));
+    assertSame(thumbsUp, summary.top(2).get(1));
+    assertEquals(List.of("🚀", "👍🏽", "👍🏽🚀", "unknown"), summary.top(4));
+  }
+
+}
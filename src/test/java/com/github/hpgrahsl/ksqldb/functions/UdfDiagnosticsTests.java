@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+import org.slf4j.event.SubstituteLoggingEvent;
+import org.slf4j.helpers.SubstituteLogger;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdfDiagnosticsTests {
+
+  @Test
+  @DisplayName("pending counts are reported after the interval even if no further affected rows arrive")
+  void reportPendingCountsPeriodically() throws Exception {
+    var events = new LinkedBlockingQueue<SubstituteLoggingEvent>();
+    //a substitute logger without delegate records all events into the queue
+    var logger = new SubstituteLogger("emojis_diagnostics_test", events, false);
+    var diagnostics = UdfDiagnostics.unregistered("emojis_diagnostics_test", logger, 500, TimeUnit.MILLISECONDS);
+    try {
+      diagnostics.invocation();
+      diagnostics.nullInput();
+      var first = events.poll(1, TimeUnit.SECONDS);
+      assertEquals(Level.WARN, first.getLevel());
+      assertArrayEquals(new Object[] {"emojis_diagnostics_test", 1L, 1L}, first.getArgumentArray());
+
+      //these rows arrive within the interval and are only reported by the scheduled flush
+      for (int i = 0; i < 4; i++) {
+        diagnostics.invocation();
+      }
+      diagnostics.nullInput();
+      diagnostics.invalidMode();
+      assertEquals(0, events.size());
+      var flushed = new ArrayList<SubstituteLoggingEvent>();
+      flushed.add(events.poll(3, TimeUnit.SECONDS));
+      flushed.add(events.poll(1, TimeUnit.SECONDS));
+      assertEquals(List.of(Level.WARN, Level.ERROR), List.of(flushed.get(0).getLevel(), flushed.get(1).getLevel()));
+      assertArrayEquals(new Object[] {"emojis_diagnostics_test", 1L, 4L}, flushed.get(0).getArgumentArray());
+      assertArrayEquals(new Object[] {"emojis_diagnostics_test", 1L, 4L}, flushed.get(1).getArgumentArray());
+
+      //nothing is pending anymore, so nothing else gets logged
+      Thread.sleep(1_200);
+      assertEquals(0, events.size());
+    } finally {
+      diagnostics.close();
+    }
+  }
+
+  @Test
+  @DisplayName("a reporter started under the name of a running one, e.g. by a reloaded class, shuts the latter down")
+  void reporterShutsDownPredecessor() throws Exception {
+    var runs = new AtomicInteger();
+    var interval = TimeUnit.MILLISECONDS.toNanos(10);
+    var predecessor = UdfDiagnostics.Reporter.start("reporter_test", runs::incrementAndGet, interval);
+    var reporter = UdfDiagnostics.Reporter.start("reporter_test", () -> {}, interval);
+    try {
+      assertTrue(predecessor.isShutdown());
+      assertFalse(reporter.isShutdown());
+      //a report which was running during the shutdown may still complete
+      Thread.sleep(20);
+      int before = runs.get();
+      Thread.sleep(100);
+      assertEquals(before, runs.get());
+    } finally {
+      reporter.shutdown();
+      ManagementFactory.getPlatformMBeanServer()
+          .unregisterMBean(UdfMetrics.objectName(UdfDiagnostics.REPORTER_TYPE, "reporter_test"));
+    }
+  }
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisAnalyzeTests {
+
+  @DisplayName("applying UDF yields the results of the single purpose UDFs...")
+  @ParameterizedTest(name = "emojis_analyze({0}) matches emojis_extract({0},{1}) = {2}")
+  @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisExtractSamples")
+  void applyUdfEmojisAnalyze(String text, boolean unique, List<String> result) {
+    var analysis = new UdfEmojisAnalyze().analyzeEmojis(text);
+    if (text == null) {
+      assertNull(analysis);
+      return;
+    }
+    assertIterableEquals(result, analysis.getArray(unique ? "UNIQUE_EMOJIS" : "EMOJIS"));
+    assertEquals(new UdfEmojisContained().containsEmojis(text), analysis.getBoolean("CONTAINED"));
+    assertEquals(new UdfEmojisCount().countEmojis(text, false), analysis.getInt32("TOTAL_COUNT"));
+    assertEquals(new UdfEmojisCount().countEmojis(text, true), analysis.getInt32("UNIQUE_COUNT"));
+  }
+
+  @Test
+  @DisplayName("applying UDF counts the occurrences per emoji in order of their first occurrence")
+  void applyUdfEmojisAnalyzeCounts() {
+    var analysis = new UdfEmojisAnalyze().analyzeEmojis("🚀 👍🏽 and 🚀 again 👍 🚀");
+    Map<String, Integer> counts = analysis.getMap("EMOJI_COUNTS");
+    assertIterableEquals(List.of("🚀", "👍🏽", "👍"), counts.keySet());
+    assertIterableEquals(List.of(3, 1, 1), counts.values());
+    assertEquals(Integer.valueOf(5), analysis.getInt32("TOTAL_COUNT"));
+    assertEquals(Integer.valueOf(3), analysis.getInt32("UNIQUE_COUNT"));
+    assertEquals(Map.of("🚀", 3, "👍🏽", 1, "👍", 1), counts);
+    assertSame(new UdfEmojisExtract().extractEmojis("🚀", false).get(0), analysis.getArray("UNIQUE_EMOJIS").get(0));
+  }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdfEmojisCategoriesTests {
+
+  private static final String TEXT = "😎🤞some 🤓 text 😍 with 🍕 emojis🚀🚀rocks! 🇦🇹 👍🏽";
+
+  @Test
+  @DisplayName("applying UDF returns the group of every emoji in order of occurrence")
+  void applyUdfEmojisCategories() {
+    var udf = new UdfEmojisCategories();
+    assertIterableEquals(List.of("Smileys & Emotion", "People & Body", "Smileys & Emotion", "Smileys & Emotion",
+        "Food & Drink", "Travel & Places", "Travel & Places", "Flags", "People & Body"), udf.lookupEmojiCategories(TEXT));
+    assertIterableEquals(List.of(), udf.lookupEmojiCategories("some text without emojis"));
+    assertNull(udf.lookupEmojiCategories(null));
+    assertNull(udf.lookupEmojiCategories(TEXT, "CATEGORY"));
+  }
+
+  @Test
+  @DisplayName("applying UDF counts emojis per group in order of first occurrence")
+  void applyUdfEmojisCategoryCounts() {
+    var udf = new UdfEmojisCategoryCounts();
+    var expected = new LinkedHashMap<String, Integer>();
+    expected.put("Smileys & Emotion", 3);
+    expected.put("People & Body", 2);
+    expected.put("Food & Drink", 1);
+    expected.put("Travel & Places", 2);
+    expected.put("Flags", 1);
+    assertEquals(expected, udf.countEmojiCategories(TEXT));
+    assertIterableEquals(expected.keySet(), udf.countEmojiCategories(TEXT, "group").keySet());
+    var subgroups = new LinkedHashMap<String, Integer>();
+    subgroups.put("face-glasses", 2);
+    subgroups.put("hand-fingers-partial", 1);
+    subgroups.put("face-affection", 1);
+    subgroups.put("food-prepared", 1);
+    subgroups.put("transport-air", 2);
+    subgroups.put("country-flag", 1);
+    subgroups.put("hand-fingers-closed", 1);
+    assertEquals(subgroups, udf.countEmojiCategories(TEXT, "SUBGROUP"));
+    assertNull(udf.countEmojiCategories(TEXT, null));
+  }
+
+  @Test
+  @DisplayName("groups and subgroups of emoji-java emojis are taken from the bundled Unicode emoji data")
+  void categoriesOfEmojiJavaEmojis() {
+    var attributes = EmojiAttributes.getDefault();
+    var table = EmojiScanner.getDefault().table();
+    assertEquals(10, attributes.groupCount());
+    var unknown = new ArrayList<String>();
+    for (var emoji : EmojiManager.getAll()) {
+      int id = table.idOf(emoji.getUnicode());
+      if (attributes.groupId(id) == EmojiAttributes.UNKNOWN) {
+        unknown.add(emoji.getUnicode());
+      } else {
+        assertNotEquals(EmojiAttributes.UNKNOWN, attributes.subgroupId(id), "unknown subgroup of " + emoji.getDescription());
+      }
+    }
+    //single regional indicator letters and the non-RGI flag of Texas are no Unicode emojis,
+    //emoji-java's pirate flag starts with a stray permanent paper sign
+    assertEquals(26 + 2, unknown.size());
+    assertTrue(unknown.containsAll(List.of("\uD83C\uDDE6", "\uD83C\uDFF4\uDB40\uDC75\uDB40\uDC73\uDB40\uDC74\uDB40\uDC78\uDB40\uDC7F")));
+    assertEquals("Flags", attributes.groupName(attributes.groupId(table.idOf("🇦🇹"))));
+    assertEquals("face-smiling", attributes.subgroupName(attributes.subgroupId(table.idOf("😀"))));
+    assertEquals("heart", attributes.subgroupName(attributes.subgroupId(table.idOf("❤"))));
+  }
+
+  @Test
+  @DisplayName("groups and subgroups of Unicode emoji data are taken from the data")
+  void categoriesFromUnicodeData() throws IOException {
+    UnicodeEmojiData data;
+    try (var reader = new InputStreamReader(getClass().getClassLoader().getResourceAsStream("emoji_test_excerpt.txt"), StandardCharsets.UTF_8)) {
+      data = UnicodeEmojiData.parse(reader);
+    }
+    var table = data.toTable();
+    var attributes = EmojiAttributes.of(table, data, null);
+    for (var entry : data.entries()) {
+      int id = table.idOf(entry.unicode);
+      if (id == EmojiTable.NO_EMOJI || !entry.unicode.equals(table.unicode(id))) {
+        continue;
+      }
+      assertEquals(entry.group, attributes.groupName(attributes.groupId(id)), "group mismatch for " + entry.name);
+      assertEquals(entry.subgroup, attributes.subgroupName(attributes.subgroupId(id)), "subgroup mismatch for " + entry.name);
+    }
+    assertTrue(attributes.subgroupCount() > 1);
+    assertTrue(Arrays.asList("Smileys & Emotion", "People & Body", "Flags").contains(attributes.groupName(attributes.groupId(0))));
+  }
+
+}
@@ -16,13 +16,18 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
+import com.github.hpgrahsl.ksqldb.functions.util.ThreadAllocations;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class UdfEmojisContainedTests {
 
@@ -31,6 +36,7 @@ public class UdfEmojisContainedTests {
   @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisContainedAnySamples")
   void applyUdfEmojisContained(String text, Boolean result) {
     assertEquals(result,new UdfEmojisContained().containsEmojis(text),"unexpected emoji occurrences");
+    assertEquals(result,new UdfEmojisContained().containsEmojis(text != null ? text.getBytes(StandardCharsets.UTF_8) : null),"unexpected emoji occurrences in UTF-8 text");
   }
 
   @DisplayName("applying UDF...")
@@ -40,4 +46,27 @@ public class UdfEmojisContainedTests {
     assertEquals(result,new UdfEmojisContained().containsEmojis(text,specificEmojis),"unexpected specific emoji occurrences");
   }
 
+  @Test
+  @DisplayName("applying UDF with changing lists of specific emojis including null entries")
+  void applyUdfEmojisContainedWithChangingSpecificEmojis() {
+    var udf = new UdfEmojisContained();
+    var text = "some 🤓 text 😍 with 😍 emojis🚀🚀rocks!";
+    assertEquals(true,udf.containsEmojis(text,Arrays.asList(null,"🚀")));
+    assertEquals(true,udf.containsEmojis(text,Arrays.asList(null,"🚀")));
+    assertEquals(false,udf.containsEmojis(text,Arrays.asList("😱",null)));
+    assertEquals(false,udf.containsEmojis(text,Arrays.asList((String)null)));
+    assertEquals(true,udf.containsEmojis(text,List.of("😍")));
+  }
+
+  @Test
+  @DisplayName("checking for any emojis allocates no memory")
+  void containsEmojisWithoutAllocations() {
+    assumeTrue(ThreadAllocations.isSupported(), "thread allocation counters not available");
+    var udf = new UdfEmojisContained();
+    var ascii = "some plain ascii text without any emojis which is the most common case by far";
+    var emojis = "some 🤓 text 😍 with 😍 emojis🚀🚀rocks!";
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.containsEmojis(ascii)),"allocations for ascii text");
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.containsEmojis(emojis)),"allocations for text with emojis");
+  }
+
 }
\ No newline at end of file
@@ -16,11 +16,17 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
+import com.github.hpgrahsl.ksqldb.functions.util.ThreadAllocations;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.charset.StandardCharsets;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class UdfEmojisCountTests {
 
@@ -29,6 +35,31 @@ public class UdfEmojisCountTests {
   @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisCountSamples")
   void applyUdfEmojisCount(String text, boolean unique, Integer result) {
     assertEquals(result,new UdfEmojisCount().countEmojis(text,unique),"mismatch for counted emojis");
+    assertEquals(result,new UdfEmojisCount().countEmojis(text != null ? text.getBytes(StandardCharsets.UTF_8) : null,unique),"mismatch for counted emojis in UTF-8 text");
+  }
+
+  @Test
+  @DisplayName("counting emojis allocates no memory")
+  void countEmojisWithoutAllocations() {
+    assumeTrue(ThreadAllocations.isSupported(), "thread allocation counters not available");
+    var udf = new UdfEmojisCount();
+    var ascii = "some plain ascii text without any emojis which is the most common case by far";
+    var emojis = "😎🤞some 🤓 text 😍 with 😍 emojis🚀🚀rocks!";
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.countEmojis(ascii,false)),"allocations for ascii text");
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.countEmojis(ascii,true)),"allocations for ascii text");
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.countEmojis(emojis,false)),"allocations for text with emojis");
+    assertEquals(0,ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.countEmojis(emojis,true)),"allocations for text with emojis");
+  }
+
+  @Test
+  @DisplayName("counting normalized emojis only changes which emojis are duplicates")
+  void countNormalizedEmojis() {
+    var udf = new UdfEmojisCount();
+    var text = "👍 👍🏽 👍🏿 ❤️ ❤ 🚀";
+    assertEquals(Integer.valueOf(6),udf.countEmojis(text,false,true));
+    assertEquals(Integer.valueOf(5),udf.countEmojis(text,true,false));
+    assertEquals(Integer.valueOf(3),udf.countEmojis(text,true,true));
+    assertNull(udf.countEmojis(null,true,true));
   }
 
-}
\ No newline at end of file
+}
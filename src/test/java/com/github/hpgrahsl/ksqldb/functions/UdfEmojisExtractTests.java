@@ -16,13 +16,20 @@
 
 package com.github.hpgrahsl.ksqldb.functions;
 
+import com.github.hpgrahsl.ksqldb.functions.util.ThreadAllocations;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 public class UdfEmojisExtractTests {
 
@@ -31,6 +38,45 @@ public class UdfEmojisExtractTests {
   @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisExtractSamples")
   void applyUdfEmojisExtract(String text, boolean unique, List<String> result) {
     assertIterableEquals(result,new UdfEmojisExtract().extractEmojis(text,unique));
+    assertIterableEquals(result,new UdfEmojisExtract().extractEmojis(text != null ? text.getBytes(StandardCharsets.UTF_8) : null,unique));
   }
 
-}
\ No newline at end of file
+  @Test
+  @DisplayName("extracted emojis are the shared canonical strings of the emoji table")
+  void extractCanonicalStrings() {
+    var udf = new UdfEmojisExtract();
+    var first = udf.extractEmojis("😂 lol 😂😂", false);
+    var second = udf.extractEmojis(new StringBuilder("so 😂").toString(), true);
+    assertEquals(3, first.size());
+    assertSame(first.get(0), first.get(1));
+    assertSame(first.get(0), first.get(2));
+    assertSame(first.get(0), second.get(0));
+    assertSame(first.get(0), udf.extractEmojis("😂".getBytes(StandardCharsets.UTF_8), false).get(0));
+  }
+
+  @Test
+  @DisplayName("extracting emojis allocates no memory per emoji occurrence beyond its id")
+  void extractEmojisWithoutPerEmojiAllocations() {
+    assumeTrue(ThreadAllocations.isSupported(), "thread allocation counters not available");
+    var udf = new UdfEmojisExtract();
+    var few = "😂 some text 😂";
+    var many = "😂 some text 😂" + "😂🚀👍🏽".repeat(100);
+    long fewBytes = ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.extractEmojis(few, false));
+    long manyBytes = ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.extractEmojis(many, false));
+    assertTrue(manyBytes - fewBytes <= 300 * Integer.BYTES + 8, "allocations per extracted emoji exceed its id: " + (manyBytes - fewBytes));
+    long uniqueBytes = ThreadAllocations.allocatedBytesPerCall(100_000, () -> udf.extractEmojis(many, true));
+    assertTrue(uniqueBytes <= fewBytes + 8, "unique extraction allocates per occurrence: " + uniqueBytes);
+  }
+
+  @Test
+  @DisplayName("extracting normalized emojis folds skin tones and variation selectors to shared base emojis")
+  void extractNormalizedEmojis() {
+    var udf = new UdfEmojisExtract();
+    var text = "👍 👍🏽 👍🏿 ❤️ ❤ 🚀";
+    assertIterableEquals(List.of("👍","👍","👍","❤","❤","🚀"),udf.extractEmojis(text,false,true));
+    assertIterableEquals(List.of("👍","❤","🚀"),udf.extractEmojis(text,true,true));
+    assertIterableEquals(udf.extractEmojis(text,true),udf.extractEmojis(text,true,false));
+    assertSame(udf.extractEmojis("👍",false).get(0),udf.extractEmojis("👍🏿",false,true).get(0));
+  }
+
+}
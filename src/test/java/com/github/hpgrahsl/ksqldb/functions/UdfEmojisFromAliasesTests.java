@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisFromAliasesTests {
+
+  private static final String[] FILLERS = {" ", "abc", "|", " :type_3: ", "10:30", "‍", "️", "日本語"};
+
+  @Test
+  @DisplayName("applying UDF to aliases, aliases with Fitzpatrick types and text which only looks like aliases")
+  void applyUdfEmojisFromAliases() {
+    var udf = new UdfEmojisFromAliases();
+    assertNull(udf.replaceAliasesWithEmojis(null));
+    assertEquals("",udf.replaceAliasesWithEmojis(""));
+    assertEquals("I ❤ it 😄!",udf.replaceAliasesWithEmojis("I :heart: it :smile:!"));
+    assertEquals("👍👍🏽",udf.replaceAliasesWithEmojis(":+1::thumbsup|type_4:"));
+    assertEquals("😄😄:",udf.replaceAliasesWithEmojis(":smile::smile::"));
+    assertEquals(":smile :smile|type_7: :no_such_alias: :smile|:",udf.replaceAliasesWithEmojis(":smile :smile|type_7: :no_such_alias: :smile|:"));
+    assertEquals("::😄",udf.replaceAliasesWithEmojis("::😄"));
+  }
+
+  @Test
+  @DisplayName("applying UDF to every alias of every emoji")
+  void applyUdfEmojisFromAliasesForAllAliases() {
+    var udf = new UdfEmojisFromAliases();
+    for (Emoji emoji : EmojiManager.getAll()) {
+      for (String alias : emoji.getAliases()) {
+        assertEquals(EmojiManager.getForAlias(alias).getUnicode(),udf.replaceAliasesWithEmojis(":" + alias + ":"),"mismatch for alias " + alias);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF to the result of emojis_to_aliases gives back the original text")
+  void applyUdfEmojisFromAliasesRoundTrip() {
+    var udf = new UdfEmojisFromAliases();
+    var random = new Random(42);
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    for (int i = 0; i < 2000; i++) {
+      var sb = new StringBuilder();
+      for (int j = random.nextInt(12); j >= 0; j--) {
+        if (random.nextBoolean()) {
+          sb.append(emojis.get(random.nextInt(emojis.size())).getUnicode());
+        } else if (random.nextInt(4) == 0) {
+          sb.append(Fitzpatrick.values()[random.nextInt(Fitzpatrick.values().length)].unicode);
+        } else {
+          sb.append(FILLERS[random.nextInt(FILLERS.length)]);
+        }
+      }
+      var text = sb.toString();
+      for (String fpAction : new String[] {"PARSE", "IGNORE"}) {
+        var aliases = new UdfEmojisToAliases().replaceEmojisWithAliases(text,fpAction);
+        assertEquals(text,udf.replaceAliasesWithEmojis(aliases),"round-trip mismatch for " + aliases);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF returns texts without aliases as the very same instance")
+  void applyUdfEmojisFromAliasesWithoutChanges() {
+    var udf = new UdfEmojisFromAliases();
+    for (String text : new String[] {"", "some text without aliases", "at 10:30:15", "😄"}) {
+      assertSame(text,udf.replaceAliasesWithEmojis(text));
+    }
+  }
+
+}
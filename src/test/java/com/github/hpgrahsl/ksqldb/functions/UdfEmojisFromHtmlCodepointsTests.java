@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisFromHtmlCodepointsTests {
+
+  private static final String[] FILLERS = {" ", "abc", "&", "#", "&#", "&#x;", "&#128;", "‍", "️", "日本語"};
+
+  @Test
+  @DisplayName("applying UDF to decimal and hexadecimal HTML codepoints with and without Fitzpatrick modifiers")
+  void applyUdfEmojisFromHtmlCodepoints() {
+    var udf = new UdfEmojisFromHtmlCodepoints();
+    assertNull(udf.replaceCodepointsWithEmojis(null));
+    assertEquals("",udf.replaceCodepointsWithEmojis(""));
+    assertEquals("I ❤ it 😄!",udf.replaceCodepointsWithEmojis("I &#10084; it &#x1f604;!"));
+    assertEquals("👍🏽👍🏽👍🏽",udf.replaceCodepointsWithEmojis("&#128077;&#127997;&#x1f44d;&#x1f3fd;&#128077;🏽"));
+    assertEquals("👨‍👩‍👧‍👦👨 &#8205;",udf.replaceCodepointsWithEmojis("&#128104;&#8205;&#128105;&#8205;&#128103;&#8205;&#128102;&#128104; &#8205;"));
+    assertEquals("&#128077 &#1f44d; &#X1F44D;",udf.replaceCodepointsWithEmojis("&#128077 &#1f44d; &#X1F44D;"));
+  }
+
+  @Test
+  @DisplayName("applying UDF to the HTML codepoints of every emoji")
+  void applyUdfEmojisFromHtmlCodepointsForAllEmojis() {
+    var udf = new UdfEmojisFromHtmlCodepoints();
+    for (Emoji emoji : EmojiManager.getAll()) {
+      assertEquals(emoji.getUnicode(),udf.replaceCodepointsWithEmojis(emoji.getHtmlDecimal()),"mismatch for " + emoji.getHtmlDecimal());
+      assertEquals(emoji.getUnicode(),udf.replaceCodepointsWithEmojis(emoji.getHtmlHexadecimal()),"mismatch for " + emoji.getHtmlHexadecimal());
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF to the result of emojis_to_htmlcodepoints gives back the original text")
+  void applyUdfEmojisFromHtmlCodepointsRoundTrip() {
+    var udf = new UdfEmojisFromHtmlCodepoints();
+    var random = new Random(42);
+    var emojis = new ArrayList<>(EmojiManager.getAll());
+    for (int i = 0; i < 2000; i++) {
+      var sb = new StringBuilder();
+      for (int j = random.nextInt(12); j >= 0; j--) {
+        if (random.nextBoolean()) {
+          sb.append(emojis.get(random.nextInt(emojis.size())).getUnicode());
+        } else if (random.nextInt(4) == 0) {
+          sb.append(Fitzpatrick.values()[random.nextInt(Fitzpatrick.values().length)].unicode);
+        } else {
+          sb.append(FILLERS[random.nextInt(FILLERS.length)]);
+        }
+      }
+      var text = sb.toString();
+      for (String encoding : new String[] {"DEC", "HEX"}) {
+        var codepoints = new UdfEmojisToHtmlCodepoints().replaceEmojisWithCodepoints(text,"IGNORE",encoding);
+        assertEquals(text,udf.replaceCodepointsWithEmojis(codepoints),"round-trip mismatch for " + codepoints);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF returns texts without HTML codepoints of emojis as the very same instance")
+  void applyUdfEmojisFromHtmlCodepointsWithoutChanges() {
+    var udf = new UdfEmojisFromHtmlCodepoints();
+    for (String text : new String[] {"", "some text without codepoints", "&amp; &#65;", "😄"}) {
+      assertSame(text,udf.replaceCodepointsWithEmojis(text));
+    }
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.Emoji;
+import com.vdurmont.emoji.EmojiManager;
+import com.vdurmont.emoji.Fitzpatrick;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisNormalizeTests {
+
+  @Test
+  @DisplayName("applying UDF folds Fitzpatrick modifiers and variation selectors")
+  void applyUdfEmojisNormalize() {
+    var udf = new UdfEmojisNormalize();
+    assertNull(udf.normalizeEmojis(null));
+    assertEquals("",udf.normalizeEmojis(""));
+    assertEquals("👍 👍 👍 ❤ ❤ 🚀",udf.normalizeEmojis("👍 👍🏽 👍🏿 ❤️ ❤ 🚀"));
+    assertEquals("I ❤ it👍",udf.normalizeEmojis("I ❤️️ it👍🏻"));
+    assertEquals("👨 👩‍🦰 🏽",udf.normalizeEmojis("👨🏾 👩‍🦰 🏽"));
+  }
+
+  @Test
+  @DisplayName("applying UDF optionally folds gender and hair components if the result is a known emoji")
+  void applyUdfEmojisNormalizeGenderAndHair() {
+    var udf = new UdfEmojisNormalize();
+    assertEquals("🧑 🧑 👩‍🦰 🧒 🧓 👨‍💻",udf.normalizeEmojis("👨🏾 👩 👩‍🦰 👧 👵🏻 👨‍💻",true,false));
+    assertEquals("👨 👩 👩 👧",udf.normalizeEmojis("👨🏾 👩 👩‍🦰 👧",false,true));
+    assertEquals("🧑 🧑 🧑 🧒",udf.normalizeEmojis("👨🏾 👩 👩‍🦰 👧",true,true));
+  }
+
+  @Test
+  @DisplayName("normalizing drops gender signs and uses gender neutral ZWJ sequences of emoji data which has them")
+  void normalizeGenderedZwjSequences() {
+    var unicodes = new String[] {"🏃", "🏃‍♀️", "👩", "🧑", "👩‍💻", "🧑‍💻", "👨‍🍳"};
+    var aliases = new ArrayList<List<String>>();
+    var names = new String[unicodes.length];
+    var tags = new ArrayList<List<String>>();
+    for (int id = 0; id < unicodes.length; id++) {
+      aliases.add(List.of("emoji_" + id));
+      names[id] = "emoji " + id;
+      tags.add(List.of());
+    }
+    var table = EmojiTable.of(unicodes, new boolean[unicodes.length], aliases, names, tags);
+    var normalizer = EmojiNormalizer.of(new EmojiScanner(table), true, false);
+    assertEquals("🏃 🏃 🧑 🧑‍💻 👨‍🍳",normalizer.normalize("🏃‍♀️ 🏃 👩 👩‍💻 👨‍🍳"));
+  }
+
+  @Test
+  @DisplayName("applying UDF to every emoji with every Fitzpatrick modifier gives the emoji without modifier")
+  void applyUdfEmojisNormalizeForAllEmojis() {
+    var udf = new UdfEmojisNormalize();
+    for (Emoji emoji : EmojiManager.getAll()) {
+      var base = udf.normalizeEmojis(emoji.getUnicode());
+      for (Fitzpatrick fp : Fitzpatrick.values()) {
+        assertEquals(base,udf.normalizeEmojis(emoji.getUnicode() + fp.unicode),"mismatch for " + emoji.getUnicode() + fp.unicode);
+      }
+      assertEquals(base,udf.normalizeEmojis(base),"normalizing is not idempotent for " + emoji.getUnicode());
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF returns texts which are already normalized as the very same instance")
+  void applyUdfEmojisNormalizeWithoutChanges() {
+    var udf = new UdfEmojisNormalize();
+    for (String text : new String[] {"", "some text without emojis", "just 👍 and 🚀"}) {
+      assertSame(text,udf.normalizeEmojis(text));
+      assertSame(text,udf.normalizeEmojis(text,true,true));
+    }
+  }
+
+}
@@ -17,9 +17,11 @@
 package com.github.hpgrahsl.ksqldb.functions;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -40,4 +42,25 @@ public class UdfEmojisRemoveTests {
       assertEquals(result,new UdfEmojisRemove().removeEmojis(text,specificEmojis),"unexpected string mismatch after removing all emojis");
   }
 
+  @Test
+  @DisplayName("applying UDF with changing lists of specific emojis including null entries")
+  void applyUdfEmojisRemoveWithChangingSpecificEmojis() {
+    var udf = new UdfEmojisRemove();
+    var text = "some 🤓 text 😍 with 😍 emojis🚀🚀rocks!";
+    assertEquals("some 🤓 text 😍 with 😍 emojisrocks!",udf.removeEmojis(text,Arrays.asList(null,"🚀")));
+    assertEquals("some 🤓 text 😍 with 😍 emojisrocks!",udf.removeEmojis(text,Arrays.asList(null,"🚀")));
+    assertEquals(text,udf.removeEmojis(text,Arrays.asList("😱",null)));
+    assertEquals("some 🤓 text  with  emojis🚀🚀rocks!",udf.removeEmojis(text,List.of("😍")));
+  }
+
+  @Test
+  @DisplayName("applying UDF with skin toned specific emojis removes exactly these variants")
+  void applyUdfEmojisRemoveWithSkinTonedSpecificEmojis() {
+    var udf = new UdfEmojisRemove();
+    assertEquals("👍 👍🏿 ",udf.removeEmojis("👍 👍🏿 👍🏽",List.of("👍🏽")));
+    assertEquals("  ",udf.removeEmojis("👍 👍🏿 👍🏽",List.of("👍","👍🏽")));
+    var matcher = EmojiMatcher.compile(EmojiScanner.getDefault(),Arrays.asList("👍🏽","🚀🏽",null));
+    assertEquals(Arrays.asList("🚀🏽",null),matcher.ignoredEntries());
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisReplaceTests {
+
+  @DisplayName("applying UDF...")
+  @ParameterizedTest(name = "emojis_replace({0},{1},{2}) = {3}")
+  @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisReplaceSamples")
+  void applyUdfEmojisReplace(String text, Map<String, String> replacements, String defaultReplacement, String result) {
+    var udf = new UdfEmojisReplace();
+    assertEquals(result,defaultReplacement == null
+        ? udf.replaceEmojis(text,replacements)
+        : udf.replaceEmojis(text,replacements,defaultReplacement),"unexpected string mismatch after replacing emojis");
+  }
+
+  @Test
+  @DisplayName("applying UDF with changing mappings and default replacements across rows")
+  void applyUdfEmojisReplaceWithChangingMappings() {
+    var udf = new UdfEmojisReplace();
+    var text = "😂 🚀";
+    assertEquals("<joy> 🚀",udf.replaceEmojis(text,Map.of("😂","<joy>")));
+    assertEquals("<joy> 🚀",udf.replaceEmojis(text,new HashMap<>(Map.of("😂","<joy>"))));
+    assertEquals("<joy> <emoji>",udf.replaceEmojis(text,Map.of("😂","<joy>"),"<emoji>"));
+    assertEquals("😂 <rocket>",udf.replaceEmojis(text,Map.of("🚀","<rocket>")));
+    assertNull(udf.replaceEmojis(text,Map.of("🚀","<rocket>"),null));
+  }
+
+  @Test
+  @DisplayName("applying UDF ignores null values and returns texts without emojis as the very same instance")
+  void applyUdfEmojisReplaceWithoutChanges() {
+    var udf = new UdfEmojisReplace();
+    var replacements = new HashMap<String, String>();
+    replacements.put("😂",null);
+    replacements.put(null,"<null>");
+    assertEquals("😂",udf.replaceEmojis("😂",replacements));
+    for (String text : new String[] {"", "some text without emojis"}) {
+      assertSame(text,udf.replaceEmojis(text,replacements,"<emoji>"));
+    }
+  }
+
+}
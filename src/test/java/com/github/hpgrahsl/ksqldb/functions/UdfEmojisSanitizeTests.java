@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UdfEmojisSanitizeTests {
+
+  @DisplayName("applying UDF...")
+  @ParameterizedTest(name = "emojis_sanitize({0},{1},{2},{3}) = {4}")
+  @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisSanitizeSamples")
+  void applyUdfEmojisSanitize(String text, String replacement, boolean stripModifiers, boolean collapseWhitespace, String result) {
+    assertEquals(result,new UdfEmojisSanitize().sanitizeEmojis(text,replacement,stripModifiers,collapseWhitespace),"unexpected string mismatch after sanitizing");
+  }
+
+  @Test
+  @DisplayName("applying UDF with default options removes emojis and leftovers")
+  void applyUdfEmojisSanitizeWithDefaults() {
+    var udf = new UdfEmojisSanitize();
+    assertEquals("I it",udf.sanitizeEmojis(" I ❤️  it "));
+    assertEquals("I <3 it",udf.sanitizeEmojis(" I ❤️  it ","<3"));
+    assertEquals(null,udf.sanitizeEmojis("text",null));
+  }
+
+  @Test
+  @DisplayName("applying UDF returns unchanged texts as the very same instance")
+  void applyUdfEmojisSanitizeWithoutChanges() {
+    var udf = new UdfEmojisSanitize();
+    for (String text : new String[] {"", "some text without emojis", "a single space between words", "क्‍ष"}) {
+      assertSame(text,udf.sanitizeEmojis(text));
+      assertSame(text,udf.sanitizeEmojis(text,"",false,false));
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF matches removing emojis when no further sanitizing is enabled")
+  void applyUdfEmojisSanitizeLikeRemove() {
+    var udf = new UdfEmojisSanitize();
+    var text = "😎🤞some 🤓 text‍😍 with ❤️ emojis🚀🏿🚀rocks! 🏻";
+    assertEquals(new UdfEmojisRemove().removeEmojis(text),udf.sanitizeEmojis(text,"",false,false));
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdfEmojisSentimentTests {
+
+  //same format as the Emoji Sentiment Ranking csv but with made-up counts
+  private static EmojiSentimentData fixture() throws IOException {
+    try (var reader = new InputStreamReader(Objects.requireNonNull(UdfEmojisSentimentTests.class
+        .getClassLoader().getResourceAsStream("emoji_sentiment_fixture.csv")), StandardCharsets.UTF_8)) {
+      return EmojiSentimentData.parse(reader);
+    }
+  }
+
+  @Test
+  @DisplayName("parsing Emoji Sentiment Ranking data scores emojis by their Laplace estimated probabilities")
+  void parseSentimentData() throws IOException {
+    var scores = fixture().scores();
+    assertEquals(4, scores.size());
+    assertEquals((71.0 - 11.0) / 103, scores.get("😂"), 1e-9);
+    assertEquals((11.0 - 26.0) / 43, scores.get("😭"), 1e-9);
+    assertEquals(0.0, scores.get("🚗"), 1e-9);
+    assertTrue(EmojiSentimentData.score(1, 0, 1) < 1.0);
+    assertTrue(EmojiSentimentData.score(1, 1, 0) > -1.0);
+  }
+
+  @Test
+  @DisplayName("applying UDF averages the scores of all ranked emojis")
+  void applyUdfEmojisSentiment() throws IOException {
+    var table = EmojiScanner.getDefault().table();
+    var attributes = EmojiAttributes.of(table, null, fixture());
+    assertTrue(attributes.hasSentiment(table.idOf("❤")));
+    assertFalse(attributes.hasSentiment(table.idOf("👍")));
+
+    var udf = new UdfEmojisSentiment(attributes);
+    assertEquals(60.0 / 103, udf.scoreEmojiSentiment("so funny 😂"), 1e-9);
+    assertEquals((60.0 / 103 - 15.0 / 43) / 2, udf.scoreEmojiSentiment("😂 and 😭"), 1e-9);
+    assertEquals(60.0 / 103, udf.scoreEmojiSentiment("😂👍"), 1e-9, "emojis which aren't ranked are skipped");
+    assertEquals(38.0 / 53, udf.scoreEmojiSentiment("❤️"), 1e-9);
+    assertNull(udf.scoreEmojiSentiment("👍 only unranked emojis"));
+    assertNull(udf.scoreEmojiSentiment("some text without emojis"));
+    assertNull(udf.scoreEmojiSentiment(null));
+  }
+
+  @Test
+  @DisplayName("fully-qualified and unqualified forms of Unicode emoji data share the score")
+  void scoreUnicodeEmojiData() throws IOException {
+    var data = UnicodeEmojiData.load(UnicodeEmojiData.BUNDLED_VERSION);
+    var table = data.toTable();
+    var attributes = EmojiAttributes.of(table, data, fixture());
+    assertEquals(38.0 / 53, attributes.sentiment(table.idOf("❤️")), 1e-9);
+    assertEquals(38.0 / 53, attributes.sentiment(table.idOf("❤")), 1e-9);
+    assertFalse(attributes.hasSentiment(table.idOf("❤️‍🔥")));
+  }
+
+  @Test
+  @DisplayName("applying UDF returns the distinct tags of all emojis")
+  void applyUdfEmojisTags() {
+    var udf = new UdfEmojisTags();
+    assertIterableEquals(List.of("happy", "joy", "pleased", "love", "crush"), udf.lookupEmojiTags("😄 😍 😄 😚"));
+    assertIterableEquals(List.of("approve", "ok"), udf.lookupEmojiTags("👍🏿"));
+    assertIterableEquals(List.of(), udf.lookupEmojiTags("no emojis"));
+    assertNull(udf.lookupEmojiTags(null));
+  }
+
+}
@@ -17,10 +17,12 @@
 package com.github.hpgrahsl.ksqldb.functions;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class UdfEmojisToAliasesTests {
 
@@ -31,4 +33,33 @@ public class UdfEmojisToAliasesTests {
     assertEquals(result,new UdfEmojisToAliases().replaceEmojisWithAliases(text, fpAction),"unexpected string mismatch after replacing emojis with aliases");
   }
 
-}
\ No newline at end of file
+  @Test
+  @DisplayName("applying UDF with case-insensitive or invalid fpAction values")
+  void applyUdfEmojisToAliasesWithModeVariants() {
+    var udf = new UdfEmojisToAliases();
+    assertEquals(":+1|type_4:",udf.replaceEmojisWithAliases("👍🏽","parse"));
+    assertEquals(":+1:",udf.replaceEmojisWithAliases("👍🏽","Remove"));
+    for (int i = 0; i < ModeCache.MAX_SIZE * 2; i++) {
+      assertNull(udf.replaceEmojisWithAliases("👍🏽","INVALID"+i));
+      assertNull(udf.replaceEmojisWithAliases("👍🏽","INVALID"));
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDF with null or invalid parameters is counted instead of logged per row")
+  void applyUdfEmojisToAliasesCountsNullAndInvalidParameters() {
+    var udf = new UdfEmojisToAliases();
+    var diagnostics = UdfDiagnostics.of("emojis_to_aliases", null);
+    long invocations = diagnostics.invocations();
+    long nullInputs = diagnostics.nullInputs();
+    long invalidModes = diagnostics.invalidModes();
+    assertNull(udf.replaceEmojisWithAliases(null,"PARSE"));
+    assertNull(udf.replaceEmojisWithAliases("👍",null));
+    assertNull(udf.replaceEmojisWithAliases("👍","INVALID"));
+    assertEquals(":+1:",udf.replaceEmojisWithAliases("👍","PARSE"));
+    assertEquals(invocations + 4,diagnostics.invocations());
+    assertEquals(nullInputs + 2,diagnostics.nullInputs());
+    assertEquals(invalidModes + 1,diagnostics.invalidModes());
+  }
+
+}
@@ -17,10 +17,12 @@
 package com.github.hpgrahsl.ksqldb.functions;
 
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class UdfEmojisToHtmlCodepointsTests {
 
@@ -31,4 +33,15 @@ public class UdfEmojisToHtmlCodepointsTests {
     assertEquals(result,new UdfEmojisToHtmlCodepoints().replaceEmojisWithCodepoints(text,fpAction,encoding), "unexpected string mismatch after replacing emojis with html codepoints");
   }
 
+  @Test
+  @DisplayName("applying UDF with case-insensitive or invalid fpAction and encoding values")
+  void applyUdfEmojisToHtmlCodepointsWithModeVariants() {
+    var udf = new UdfEmojisToHtmlCodepoints();
+    assertEquals("&#x1f44d;",udf.replaceEmojisWithCodepoints("👍🏽","remove","HEX"));
+    assertEquals("&#128077;🏽",udf.replaceEmojisWithCodepoints("👍🏽","Ignore","DEC"));
+    assertNull(udf.replaceEmojisWithCodepoints("👍🏽","PARSE","dec"));
+    assertNull(udf.replaceEmojisWithCodepoints("👍🏽","INVALID","DEC"));
+    assertNull(udf.replaceEmojisWithCodepoints("👍🏽","INVALID","INVALID"));
+  }
+
 }
\ No newline at end of file
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdfMetricsTests {
+
+  @Test
+  @DisplayName("latency buckets cover every value with a bounded relative error")
+  void latencyBucketsBoundRelativeError() {
+    long[] values = {0, 1, 15, 16, 17, 100, 1_000, 123_456, 10_000_000_000L, Long.MAX_VALUE / 3};
+    for (long value : values) {
+      long upper = UdfMetrics.bucketUpperBound(UdfMetrics.latencyBucket(value));
+      assertTrue(upper >= value, "bucket upper bound below value " + value);
+      assertTrue(upper - value <= value / 8, "bucket too wide for value " + value);
+    }
+  }
+
+  @Test
+  @DisplayName("recording invocations yields hit ratio, input length histogram and percentiles")
+  void recordInvocations() throws Exception {
+    var metrics = new UdfMetrics(UdfDiagnostics.of("emojis_metrics_test", null), true);
+    for (int i = 0; i < 100; i++) {
+      metrics.record(metrics.start(), i < 10 ? 0 : 1000, i % 4 == 0);
+    }
+    assertEquals(100, metrics.getRecordedInvocations());
+    assertEquals(25, metrics.getEmojiHits());
+    assertEquals(0.25, metrics.getEmojiHitRatio());
+    assertEquals(900.0, metrics.getMeanInputLength());
+    long[] lengths = metrics.getInputLengthHistogram();
+    assertEquals(10, lengths[0]);
+    assertEquals(90, lengths[UdfMetrics.lengthBucket(1000)]);
+    assertTrue(metrics.getLatencyNanosP50() <= metrics.getLatencyNanosP99());
+    assertTrue(metrics.getLatencyNanosP999() <= metrics.getMaxLatencyNanos());
+
+    metrics.register();
+    var server = ManagementFactory.getPlatformMBeanServer();
+    assertEquals(100L, server.getAttribute(metrics.objectName(), "RecordedInvocations"));
+    server.invoke(metrics.objectName(), "reset", new Object[0], new String[0]);
+    assertEquals(0L, metrics.getRecordedInvocations());
+    server.unregisterMBean(metrics.objectName());
+  }
+
+  @Test
+  @DisplayName("disabled metrics record nothing")
+  void disabledMetricsRecordNothing() {
+    var metrics = new UdfMetrics(UdfDiagnostics.of("emojis_metrics_test", null), false);
+    metrics.record(metrics.start(), 10, true);
+    assertEquals(0, metrics.getRecordedInvocations());
+    assertEquals(0, metrics.getLatencyNanosP99());
+  }
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import org.apache.kafka.connect.data.Struct;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UdtfEmojisCountsTests {
+
+  @DisplayName("applying UDTF yields one row per unique emoji of emojis_extract...")
+  @ParameterizedTest(name = "emojis_counts({0}) matches emojis_extract({0},{1}) = {2}")
+  @MethodSource("com.github.hpgrahsl.ksqldb.functions.util.JsonFileArgumentsProviders#emojisExtractSamples")
+  void applyUdtfEmojisCounts(String text, boolean unique, List<String> result) {
+    var rows = new UdtfEmojisCounts().countEmojis(text);
+    if (text == null) {
+      assertTrue(rows.isEmpty());
+      return;
+    }
+    var emojis = rows.stream().map(r -> r.getString("EMOJI")).collect(Collectors.toList());
+    assertIterableEquals(new UdfEmojisExtract().extractEmojis(text, true), emojis);
+    if (unique) {
+      assertIterableEquals(result, emojis);
+    }
+    Map<String, Integer> counts = new UdfEmojisAnalyze().analyzeEmojis(text).getMap("EMOJI_COUNTS");
+    for (var row : rows) {
+      assertEquals(counts.get(row.getString("EMOJI")), row.getInt32("EMOJI_COUNT"));
+      assertTrue(text.startsWith(row.getString("EMOJI"), row.getInt32("FIRST_OFFSET")));
+    }
+  }
+
+  @Test
+  @DisplayName("applying UDTF emits a single row for a repeated emoji")
+  void applyUdtfEmojisCountsRepeated() {
+    var rows = new UdtfEmojisCounts().countEmojis("😂😂😂😂😂");
+    assertEquals(1, rows.size());
+    assertRow("😂", 5, 0, rows.get(0));
+  }
+
+  @Test
+  @DisplayName("applying UDTF counts the occurrences per emoji in order of their first occurrence")
+  void applyUdtfEmojisCountsOffsets() {
+    var rows = new UdtfEmojisCounts().countEmojis("🚀 👍🏽 and 🚀 again 👍 🚀");
+    assertEquals(3, rows.size());
+    assertRow("🚀", 3, 0, rows.get(0));
+    assertRow("👍🏽", 1, 3, rows.get(1));
+    assertRow("👍", 1, 21, rows.get(2));
+    assertSame(new UdfEmojisExtract().extractEmojis("🚀", false).get(0), rows.get(0).getString("EMOJI"));
+  }
+
+  @Test
+  @DisplayName("applying UDTF with normalization counts skin tone and presentation variants as their base emoji")
+  void applyUdtfEmojisCountsNormalized() {
+    var udtf = new UdtfEmojisCounts();
+    var text = "👍🏽 ❤️ 👍 ❤ 👍🏿";
+    var rows = udtf.countEmojis(text, true);
+    assertEquals(2, rows.size());
+    assertRow("👍", 3, 0, rows.get(0));
+    assertRow("❤", 2, 5, rows.get(1));
+    assertEquals(new UdfEmojisCount().countEmojis(text, true), Integer.valueOf(udtf.countEmojis(text, false).size()));
+  }
+
+  private static void assertRow(String emoji, int count, int offset, Struct row) {
+    assertEquals(emoji, row.getString("EMOJI"));
+    assertEquals(Integer.valueOf(count), row.getInt32("EMOJI_COUNT"));
+    assertEquals(Integer.valueOf(offset), row.getInt32("FIRST_OFFSET"));
+  }
+
+}
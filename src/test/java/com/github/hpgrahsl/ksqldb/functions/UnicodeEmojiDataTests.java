@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020. Hans-Peter Grahsl (grahslhp@gmail.com)
+ *
+ * Licensed under the MIT License (the "License").
+ * You may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at: https://opensource.org/licenses/MIT
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+ * FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS
+ * OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+ * WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN
+ * CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ *
+ */
+
+package com.github.hpgrahsl.ksqldb.functions;
+
+import com.vdurmont.emoji.EmojiManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UnicodeEmojiDataTests {
+
+  private static UnicodeEmojiData excerpt() throws IOException {
+    try (var reader = new InputStreamReader(Objects.requireNonNull(UnicodeEmojiDataTests.class
+        .getClassLoader().getResourceAsStream("emoji_test_excerpt.txt")), StandardCharsets.UTF_8)) {
+      return UnicodeEmojiData.parse(reader);
+    }
+  }
+
+  @Test
+  @DisplayName("parsing emoji-test.txt keeps status, name, group and subgroup of every sequence")
+  void parseEmojiTestFile() throws IOException {
+    var entries = excerpt().entries();
+    assertEquals(34, entries.size());
+    var family = entries.stream().filter(e -> e.name.equals("family: man, woman, girl, boy")).findFirst().orElseThrow();
+    assertEquals("👨‍👩‍👧‍👦", family.unicode);
+    assertEquals("fully-qualified", family.status);
+    assertEquals("People & Body", family.group);
+    assertEquals("family", family.subgroup);
+    assertEquals("family_man_woman_girl_boy", family.alias());
+  }
+
+  @Test
+  @DisplayName("full RGI sequences are matched as a whole instead of being split into several emojis")
+  void matchFullSequences() throws IOException {
+    var scanner = new EmojiScanner(excerpt().toTable());
+    assertIterableEquals(List.of("👨‍👩‍👧‍👦", "👨‍👩‍👧", "👩🏽‍💻", "🏴󠁧󠁢󠁥󠁮󠁧󠁿", "🏴", "🇦🇽"),
+        scanner.extract("👨‍👩‍👧‍👦 and 👨‍👩‍👧 with 👩🏽‍💻 in 🏴󠁧󠁢󠁥󠁮󠁧󠁿 🏴🇦🇽", false));
+    assertIterableEquals(List.of("❤️‍🔥", "❤‍🔥", "❤️", "#️⃣", "1⃣"), scanner.extract("❤️‍🔥❤‍🔥 ❤️ #️⃣ 1⃣", false));
+    assertEquals(1, scanner.count("👨‍👩‍👧‍👦"));
+  }
+
+  @Test
+  @DisplayName("skin tone variants are folded into their base emoji which then supports Fitzpatrick modifiers")
+  void foldSkinToneVariants() throws IOException {
+    var table = excerpt().toTable();
+    var scanner = new EmojiScanner(table);
+    int thumbsUp = table.idOf("👍");
+    assertTrue(table.supportsFitzpatrick(thumbsUp));
+    assertEquals(EmojiTable.NO_EMOJI, table.idOf("👍🏽"));
+    assertIterableEquals(List.of("👍🏽", "👍", "👩🏽"), scanner.extract("👍🏽 👍 👩🏽", false));
+    assertEquals("thumbs_up", table.alias(thumbsUp));
+    assertEquals("&#128077;", table.htmlDecimal(thumbsUp));
+    assertEquals("&#x1f3f4;&#xe0067;&#xe0062;&#xe0065;&#xe006e;&#xe0067;&#xe007f;", table.htmlHexadecimal(table.idOf("🏴󠁧󠁢󠁥󠁮󠁧󠁿")));
+    assertEquals("flag_aland_islands", table.alias(table.idOf("🇦🇽")));
+  }
+
+  @Test
+  @DisplayName("the shipped emoji-test.txt contains all sequences of its Unicode emoji version")
+  void loadShippedEmojiData() throws IOException {
+    var data = UnicodeEmojiData.load(UnicodeEmojiData.BUNDLED_VERSION);
+    assertEquals(5034, data.entries().size());
+    assertEquals(Map.of("fully-qualified", 3773L, "minimally-qualified", 1009L, "unqualified", 243L, "component", 9L),
+        data.entries().stream().collect(Collectors.groupingBy(e -> e.status, Collectors.counting())));
+    var phoenix = data.entries().stream().filter(e -> e.unicode.equals("🐦‍🔥")).findFirst().orElseThrow();
+    assertEquals("Animals & Nature", phoenix.group);
+    assertEquals("animal-bird", phoenix.subgroup);
+
+    var table = data.toTable();
+    var scanner = new EmojiScanner(table);
+    assertIterableEquals(List.of("🫨", "🐦‍🔥", "👩🏽‍💻", "🏴󠁧󠁢󠁷󠁬󠁳󠁿", "👍🏿", "❤️‍🔥"),
+        scanner.extract("🫨 a 🐦‍🔥 by 👩🏽‍💻 from 🏴󠁧󠁢󠁷󠁬󠁳󠁿 👍🏿❤️‍🔥", false));
+    assertTrue(table.supportsFitzpatrick(table.idOf("👍")));
+    assertEquals("phoenix", table.alias(table.idOf("🐦‍🔥")));
+  }
+
+  @Test
+  @DisplayName("aliases decode to the fully-qualified form whose alias all other forms are written with")
+  void aliasesOfFullyQualifiedForms() throws IOException {
+    var data = UnicodeEmojiData.load(UnicodeEmojiData.BUNDLED_VERSION);
+    var table = data.toTable();
+    var decoder = EmojiDecoder.aliases(table);
+    var fullyQualified = data.entries().stream().filter(e -> e.status.equals(UnicodeEmojiData.STATUS_FULLY_QUALIFIED))
+        .map(e -> e.unicode).collect(Collectors.toSet());
+    for (int id = 0; id < table.size(); id++) {
+      for (int a = 0; a < table.aliasCount(id); a++) {
+        var decoded = decoder.decode(":" + table.alias(id, a) + ":");
+        assertTrue(fullyQualified.contains(decoded), "alias " + table.alias(id, a) + " decodes to " + decoded);
+      }
+    }
+    assertEquals("❤️", decoder.decode(":red_heart:"));
+    assertEquals("red_heart", table.alias(table.idOf("❤")));
+    assertEquals("☺️", decoder.decode(":smiling_face:"));
+    assertEquals("smiling_face", table.alias(table.idOf("☺")));
+
+    var reordered = UnicodeEmojiData.parse(new StringReader(
+        "263A ; unqualified # ☺ E0.6 smiling face\n263A FE0F ; fully-qualified # ☺️ E0.6 smiling face\n")).toTable();
+    assertEquals("☺️", EmojiDecoder.aliases(reordered).decode(":smiling_face:"));
+  }
+
+  @Test
+  @DisplayName("emoji-java data stays the default for compatibility with existing behaviour")
+  void emojiJavaDataIsDefault() {
+    assertEquals(UnicodeEmojiData.EMOJI_JAVA,
+        System.getProperty(UnicodeEmojiData.DATA_VERSION_PROPERTY, UnicodeEmojiData.EMOJI_JAVA));
+    assertEquals(EmojiManager.getAll().size(), EmojiTable.getDefault().size());
+    assertNull(UnicodeEmojiData.configured());
+  }
+
+}
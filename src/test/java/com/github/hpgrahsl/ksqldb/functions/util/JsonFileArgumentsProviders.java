@@ -23,7 +23,9 @@ import javax.json.JsonObject;
 import javax.json.JsonValue;
 import java.io.FileInputStream;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Stream;
 
@@ -39,6 +41,8 @@ public class JsonFileArgumentsProviders {
     private static final String SAMPLES_EMOJIS_REMOVE_SPECIFIC = "./udf_emojis_remove_specific_samples.json";
     private static final String SAMPLES_EMOJIS_TO_ALIASES = "./udf_emojis_to_aliases_samples.json";
     private static final String SAMPLES_EMOJIS_TO_HTMLCODEPOINTS = "./udf_emojis_to_htmlcodepoints_samples.json";
+    private static final String SAMPLES_EMOJIS_SANITIZE = "./udf_emojis_sanitize_samples.json";
+    private static final String SAMPLES_EMOJIS_REPLACE = "./udf_emojis_replace_samples.json";
 
     private static List<JsonObject> parseJsonSampleFile(String filePath) {
         try (var jr = Json.createReader(
@@ -150,4 +154,37 @@ public class JsonFileArgumentsProviders {
                 );
     }
 
+    public static Stream<Arguments> emojisSanitizeSamples() {
+        return parseJsonSampleFile(SAMPLES_EMOJIS_SANITIZE)
+                .stream()
+                .map(jo -> arguments(
+                        jo.getString("text",null),
+                        jo.getString("replacement"),
+                        jo.getBoolean("stripModifiers"),
+                        jo.getBoolean("collapseWhitespace"),
+                        jo.getString("result",null)
+                        )
+                );
+    }
+
+    public static Stream<Arguments> emojisReplaceSamples() {
+        return parseJsonSampleFile(SAMPLES_EMOJIS_REPLACE)
+                .stream()
+                .map(jo -> arguments(
+                        jo.getString("text",null),
+                        jo.get("replacements").getValueType().equals(JsonValue.ValueType.NULL)
+                                ? null
+                                : toMap(jo.getJsonObject("replacements")),
+                        jo.getString("defaultReplacement",null),
+                        jo.getString("result",null)
+                        )
+                );
+    }
+
+    private static Map<String, String> toMap(JsonObject jo) {
+        var map = new LinkedHashMap<String, String>();
+        jo.keySet().forEach(key -> map.put(key, jo.getString(key)));
+        return map;
+    }
+
 }